@@ -1,13 +1,20 @@
 package me.joeycumines.javapromises.core;
 
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 /**
  * Wraps a {@link Promise} created using {@link PromiseFactory}, so that we can resolve a promise after the fact.
  * <p>
+ * Resolving may block, until the action passed to {@link PromiseFactory#create(java.util.function.BiConsumer)} has
+ * been run, prefer {@link PromiseFactory#defer()}, which implementations may provide without this handshake. Resolving
+ * more then once is only guarded against by the resolve functions the factory provided to that action.
+ * <p>
  * This class is tested as part of {@link PromiseFactory}, in the abstract PromiseFactoryTest class.
  */
-public class BlockingPromise<T> {
+public class BlockingPromise<T> implements Deferred<T> {
     private final Promise<T> promise;
     private volatile Consumer<? super T> _fulfill;
     private volatile Consumer<Throwable> _reject;
@@ -26,39 +33,160 @@ public class BlockingPromise<T> {
         });
     }
 
+    @Override
     public Promise<T> getPromise() {
         return this.promise;
     }
 
+    @Override
     public Promise<T> fulfill(T value) {
-        if (null == this._fulfill) {
-            synchronized (this.lock) {
-                while (null == this._fulfill) {
-                    try {
-                        this.lock.wait();
-                    } catch (InterruptedException ignored) {
-                    }
-                }
-            }
-        }
+        this.await();
+
+        this._fulfill.accept(value);
+        return this.promise;
+    }
+
+    /**
+     * Fulfill the promise, waiting at most the timeout for the factory to run the action.
+     *
+     * @param value   The value to fulfill with.
+     * @param timeout The max time to wait, a value less than or equal to zero will not wait at all.
+     * @param unit    The unit of the timeout.
+     * @return The promise.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException     If the timeout elapsed, before the promise could be resolved.
+     * @throws NullPointerException If unit is null.
+     * @see #fulfill(Object)
+     */
+    public Promise<T> fulfill(T value, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        this.await(timeout, unit);
+
+        this._fulfill.accept(value);
+        return this.promise;
+    }
+
+    /**
+     * Fulfill the promise, waiting for the factory to run the action, unless the thread is interrupted.
+     *
+     * @param value The value to fulfill with.
+     * @return The promise.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @see #fulfill(Object)
+     */
+    public Promise<T> interruptibleFulfill(T value) throws InterruptedException {
+        this.awaitInterruptibly();
 
         this._fulfill.accept(value);
         return this.promise;
     }
 
+    @Override
     public Promise<T> reject(Throwable value) {
-        if (null == this._reject) {
-            synchronized (this.lock) {
-                while (null == this._reject) {
-                    try {
-                        this.lock.wait();
-                    } catch (InterruptedException ignored) {
-                    }
+        Objects.requireNonNull(value);
+
+        this.await();
+
+        this._reject.accept(value);
+        return this.promise;
+    }
+
+    /**
+     * Reject the promise, waiting at most the timeout for the factory to run the action.
+     *
+     * @param value   The reason to reject with.
+     * @param timeout The max time to wait, a value less than or equal to zero will not wait at all.
+     * @param unit    The unit of the timeout.
+     * @return The promise.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException     If the timeout elapsed, before the promise could be resolved.
+     * @throws NullPointerException If the reason or unit is null.
+     * @see #reject(Throwable)
+     */
+    public Promise<T> reject(Throwable value, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        Objects.requireNonNull(value);
+
+        this.await(timeout, unit);
+
+        this._reject.accept(value);
+        return this.promise;
+    }
+
+    /**
+     * Reject the promise, waiting for the factory to run the action, unless the thread is interrupted.
+     *
+     * @param value The reason to reject with.
+     * @return The promise.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws NullPointerException If the reason is null.
+     * @see #reject(Throwable)
+     */
+    public Promise<T> interruptibleReject(Throwable value) throws InterruptedException {
+        Objects.requireNonNull(value);
+
+        this.awaitInterruptibly();
+
+        this._reject.accept(value);
+        return this.promise;
+    }
+
+    /**
+     * Wait until the factory has run the action, restoring the interrupt status, if the thread was interrupted.
+     */
+    private void await() {
+        // both are set together, and _reject is set last
+        if (null != this._reject) {
+            return;
+        }
+
+        boolean interrupted = false;
+
+        synchronized (this.lock) {
+            while (null == this._reject) {
+                try {
+                    this.lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
                 }
             }
         }
 
-        this._reject.accept(value);
-        return this.promise;
+        // don't swallow the interrupt
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitInterruptibly() throws InterruptedException {
+        if (null != this._reject) {
+            return;
+        }
+
+        synchronized (this.lock) {
+            while (null == this._reject) {
+                this.lock.wait();
+            }
+        }
+    }
+
+    private void await(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        Objects.requireNonNull(unit);
+
+        if (null != this._reject) {
+            return;
+        }
+
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+
+        synchronized (this.lock) {
+            while (null == this._reject) {
+                if (remaining <= 0) {
+                    throw new TimeoutException();
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
     }
 }
@@ -0,0 +1,153 @@
+package me.joeycumines.javapromises.core;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Counts the completion of a fixed number of indexed inputs, for fan-in combinators such as
+ * {@link PromiseApi#all(Iterable)}, identifying exactly one winner, either the last input to count down, or the first
+ * caller of {@link #tryFinish()}.
+ * <p>
+ * Small fan-ins use a single counter. Above {@link #STRIPED_THRESHOLD} inputs, a tree of padded sub-counters is used
+ * instead, so that concurrent completions (of inputs with different indexes) rarely touch the same cache line, and
+ * only the last input of each group moves up the tree.
+ * <p>
+ * Every count down happens-before the winning count down, since each is an atomic read-modify-write on the same path
+ * to the root, so values written before counting down are visible to the winner.
+ */
+abstract class CompletionCounter {
+    /**
+     * The smallest size that uses a striped counter.
+     */
+    static final int STRIPED_THRESHOLD = 1 << 10;
+
+    private static final AtomicIntegerFieldUpdater<CompletionCounter> FINISHED =
+            AtomicIntegerFieldUpdater.newUpdater(CompletionCounter.class, "finished");
+
+    private volatile int finished;
+
+    /**
+     * @param size The number of inputs, each must count down at most once.
+     * @return A new counter.
+     * @throws IllegalArgumentException If size is not positive.
+     */
+    static CompletionCounter create(int size) throws IllegalArgumentException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        if (size < STRIPED_THRESHOLD) {
+            return new Single(size);
+        }
+
+        return new Striped(size);
+    }
+
+    /**
+     * @param index The index of the input that completed.
+     * @return True if this was the last input to complete, and nobody finished early.
+     */
+    final boolean countDown(int index) {
+        return this.decrement(index) && this.tryFinish();
+    }
+
+    /**
+     * Finish early, for example on the first rejection for {@link PromiseApi#all(Iterable)}.
+     *
+     * @return True if this call finished the counter, false if it was already finished.
+     */
+    final boolean tryFinish() {
+        return 0 == this.finished && FINISHED.compareAndSet(this, 0, 1);
+    }
+
+    /**
+     * @return True if either the last input counted down, or {@link #tryFinish()} succeeded.
+     */
+    final boolean isFinished() {
+        return 0 != this.finished;
+    }
+
+    /**
+     * @param index The index of the input that completed.
+     * @return True if the count reached zero.
+     */
+    abstract boolean decrement(int index);
+
+    /**
+     * A single counter, for small fan-ins.
+     */
+    private static final class Single extends CompletionCounter {
+        private static final AtomicIntegerFieldUpdater<Single> REMAINING =
+                AtomicIntegerFieldUpdater.newUpdater(Single.class, "remaining");
+
+        private volatile int remaining;
+
+        private Single(int size) {
+            this.remaining = size;
+        }
+
+        @Override
+        boolean decrement(int index) {
+            return 0 == REMAINING.decrementAndGet(this);
+        }
+    }
+
+    /**
+     * A tree of counters, each counting the completion of up to {@code 1 << SHIFT} children, with the inputs as leaves.
+     */
+    private static final class Striped extends CompletionCounter {
+        private static final int SHIFT = 6;
+
+        /**
+         * Each counter is padded to it's own (64 byte) cache line.
+         */
+        private static final int PADDING = 16;
+
+        /**
+         * The counters at each level, from the bottom (grouping inputs) to the root, which has a single counter.
+         */
+        private final AtomicIntegerArray[] levels;
+
+        private Striped(int size) {
+            int depth = 0;
+
+            for (int count = size; count > 1; count = groups(count)) {
+                depth++;
+            }
+
+            this.levels = new AtomicIntegerArray[depth];
+
+            int count = size;
+
+            for (int level = 0; level < depth; level++) {
+                int groups = groups(count);
+                AtomicIntegerArray counters = new AtomicIntegerArray(groups * PADDING);
+
+                for (int group = 0; group < groups; group++) {
+                    counters.set(group * PADDING, Math.min(1 << SHIFT, count - (group << SHIFT)));
+                }
+
+                this.levels[level] = counters;
+                count = groups;
+            }
+        }
+
+        @Override
+        boolean decrement(int index) {
+            for (AtomicIntegerArray counters : this.levels) {
+                index >>>= SHIFT;
+
+                // other children of this group are still pending
+                if (0 != counters.decrementAndGet(index * PADDING)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private static int groups(int count) {
+            return (count + (1 << SHIFT) - 1) >>> SHIFT;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package me.joeycumines.javapromises.core;
+
+/**
+ * A lightweight callback, notified once when a {@link ListenablePromise} resolves, without creating a new promise.
+ * <p>
+ * Listeners are run synchronously, by whichever thread resolves the promise (or adds the listener, if the promise is
+ * already resolved), so they should be short, and <b>must not</b> throw.
+ *
+ * @param <T> The type of the promise.
+ */
+@FunctionalInterface
+public interface CompletionListener<T> {
+    /**
+     * @param value     The value the promise fulfilled with, always null if it rejected.
+     * @param exception The exception the promise rejected with, or null if it fulfilled.
+     */
+    void onComplete(T value, Throwable exception);
+}
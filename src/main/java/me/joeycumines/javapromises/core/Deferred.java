@@ -0,0 +1,43 @@
+package me.joeycumines.javapromises.core;
+
+/**
+ * A {@code PENDING} promise, that may be resolved externally, by any thread, after the fact.
+ * <p>
+ * Implementations provided by overriding {@link PromiseFactory#defer()} are created already pending, and resolving them
+ * <b>must not</b> block, waiting on any other thread.
+ * <p>
+ * The first call to either fulfill or reject will be the resolved value. Both of these methods <b>must</b> throw a
+ * {@link MutatedStateException} for any subsequent calls.
+ * <p>
+ * The exception is {@link BlockingPromise}, used by the default {@link PromiseFactory#defer()}, which may block until
+ * the factory has run the action passed to {@link PromiseFactory#create(java.util.function.BiConsumer)}, and which
+ * only throws on subsequent calls if the resolve functions the factory provided do.
+ *
+ * @param <T> The type the promise will resolve with.
+ */
+public interface Deferred<T> {
+    /**
+     * @return The promise that will be resolved by this.
+     */
+    Promise<T> getPromise();
+
+    /**
+     * Fulfill the promise with a value.
+     *
+     * @param value The value to fulfill with.
+     * @return The promise.
+     * @throws SelfResolutionException If the value was the promise itself.
+     * @throws MutatedStateException   If the promise was already resolved.
+     */
+    Promise<T> fulfill(T value) throws SelfResolutionException, MutatedStateException;
+
+    /**
+     * Reject the promise with a reason.
+     *
+     * @param reason The reason to reject with.
+     * @return The promise.
+     * @throws NullPointerException  If the reason is null.
+     * @throws MutatedStateException If the promise was already resolved.
+     */
+    Promise<T> reject(Throwable reason) throws NullPointerException, MutatedStateException;
+}
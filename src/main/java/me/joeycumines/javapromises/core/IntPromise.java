@@ -0,0 +1,120 @@
+package me.joeycumines.javapromises.core;
+
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * A promise of a primitive {@code int}, which allows chaining without boxing every intermediate value,
+ * following the general contract of {@link Promise}, where applicable.
+ * <p>
+ * A {@code FULFILLED} IntPromise has an {@code int} value, a {@code REJECTED} one has a non-null
+ * {@link Throwable}. Callbacks will be run as soon as possible, and may not be run inline, unless the implementation
+ * explicitly allows it.
+ * <p>
+ * Use {@link #boxed()} or {@link #thenApply(IntFunction)} to convert back to a {@link Promise}.
+ * <p>
+ * All methods that are part of this interface <b>must</b> be thread-safe, and no method may block unless the method
+ * name ends in "sync".
+ * <p>
+ * <b>If a {@code null} object argument is passed to any method, then a {@link NullPointerException} will be thrown.</b>
+ */
+public interface IntPromise {
+    /**
+     * @return The state of the promise.
+     * @see Promise#getState()
+     */
+    PromiseState getState();
+
+    /**
+     * Specify a callback to be run on successful resolution {@code FULFILLED} of this, returning a new promise that
+     * will fulfill with the callback's result. If {@code this} rejects, or the callback throws, the returned promise
+     * will reject with the same exception.
+     *
+     * @param callback The operation which will be performed if {@code this} resolves successfully.
+     * @return A new promise.
+     * @throws NullPointerException If callback is null.
+     */
+    IntPromise thenApplyAsInt(IntUnaryOperator callback);
+
+    /**
+     * @param callback The operation which will be performed if {@code this} resolves successfully.
+     * @return A new promise.
+     * @throws NullPointerException If callback is null.
+     * @see #thenApplyAsInt(IntUnaryOperator)
+     */
+    LongPromise thenApplyAsLong(IntToLongFunction callback);
+
+    /**
+     * @param callback The operation which will be performed if {@code this} resolves successfully.
+     * @return A new promise.
+     * @throws NullPointerException If callback is null.
+     * @see #thenApplyAsInt(IntUnaryOperator)
+     */
+    DoublePromise thenApplyAsDouble(IntToDoubleFunction callback);
+
+    /**
+     * Convert to a {@link Promise} via a callback, which will only box once, for the final result.
+     *
+     * @param callback The operation which will be performed if {@code this} resolves successfully.
+     * @param <U>      The type of the returned promise.
+     * @return A new promise.
+     * @throws NullPointerException If callback is null.
+     * @see #thenApplyAsInt(IntUnaryOperator)
+     */
+    <U> Promise<U> thenApply(IntFunction<? extends U> callback);
+
+    /**
+     * Specify a callback to be run if this resolves with a failed state {@code REJECTED}, returning a new promise
+     * that will fulfill with the callback's result. If {@code this} fulfills, the returned promise will fulfill with
+     * the same value, and if the callback throws, the returned promise will reject with that exception.
+     *
+     * @param callback The operation which will be performed if {@code this} resolves exceptionally.
+     * @return A new promise.
+     * @throws NullPointerException If callback is null.
+     */
+    IntPromise except(ToIntFunction<Throwable> callback);
+
+    /**
+     * @return A {@link Promise} that will resolve in the same way as {@code this}, with the value boxed.
+     */
+    Promise<Integer> boxed();
+
+    /**
+     * Attempt to cancel {@code this}, rejecting it with a {@link java.util.concurrent.CancellationException}, if it
+     * is still {@code PENDING}.
+     *
+     * @return True if {@code this} was cancelled by this call.
+     * @see Promise#cancel()
+     */
+    default boolean cancel() {
+        return false;
+    }
+
+    /**
+     * Block until {@code this} is resolved.
+     *
+     * @see Promise#sync()
+     */
+    void sync();
+
+    /**
+     * Block until {@code this} is resolved, returning the value if it resolved with {@code FULFILLED}, otherwise
+     * returning {@code 0}.
+     *
+     * @return The resolved value, or {@code 0} if {@code REJECTED}.
+     * @see Promise#thenSync()
+     */
+    int thenSync();
+
+    /**
+     * Block until {@code this} is resolved, returning the exception if it resolved with {@code REJECTED}, otherwise
+     * returning {@code null}.
+     *
+     * @return The reason for rejection, or {@code null} if {@code FULFILLED}.
+     * @see Promise#exceptSync()
+     */
+    Throwable exceptSync();
+}
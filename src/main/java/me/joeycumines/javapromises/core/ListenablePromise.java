@@ -0,0 +1,85 @@
+package me.joeycumines.javapromises.core;
+
+import java.util.Objects;
+
+/**
+ * A promise that supports {@link CompletionListener}, a cheaper alternative to {@link #always(java.util.function.BiFunction)},
+ * for internal use by combinators, which only need to be notified on resolution.
+ *
+ * @param <T> The type of the promise.
+ */
+public interface ListenablePromise<T> extends Promise<T> {
+    /**
+     * Add a listener, to be run exactly once, when this promise resolves. If this promise is already resolved, the
+     * listener will be run immediately, on the calling thread.
+     * <p>
+     * No ordering is guaranteed between listeners, or between listeners and promises chained from this.
+     *
+     * @param listener The listener to add.
+     * @throws NullPointerException If the listener is null.
+     */
+    void addListener(CompletionListener<? super T> listener);
+
+    /**
+     * Remove a listener that was added to this promise, if it has not yet been run, so that it (and anything it
+     * references) is no longer retained by this promise. Listeners are matched by identity.
+     *
+     * @param listener The listener to remove.
+     * @return True if the listener was removed, and will never be run.
+     * @throws NullPointerException If the listener is null.
+     */
+    boolean removeListener(CompletionListener<? super T> listener);
+
+    /**
+     * Add a listener to any promise, falling back to {@link Promise#always(java.util.function.BiFunction)} if the
+     * promise is not a {@link ListenablePromise}.
+     *
+     * @param promise  The promise to listen to.
+     * @param listener The listener to add.
+     * @param <T>      The type of the promise.
+     * @throws NullPointerException If either argument is null.
+     */
+    static <T> void addListener(Promise<T> promise, CompletionListener<? super T> listener) {
+        Objects.requireNonNull(promise);
+        Objects.requireNonNull(listener);
+
+        if (promise instanceof ListenablePromise) {
+            ((ListenablePromise<T>) promise).addListener(listener);
+            return;
+        }
+
+        PromiseState state = promise.getState();
+
+        if (PromiseState.FULFILLED == state) {
+            listener.onComplete(promise.thenSync(), null);
+            return;
+        }
+
+        if (PromiseState.REJECTED == state) {
+            listener.onComplete(null, promise.exceptSync());
+            return;
+        }
+
+        promise.always((r, e) -> {
+            listener.onComplete(r, e);
+            return null;
+        });
+    }
+
+    /**
+     * Remove a listener added by {@link #addListener(Promise, CompletionListener)}, this does nothing if the promise
+     * is not a {@link ListenablePromise}.
+     *
+     * @param promise  The promise the listener was added to.
+     * @param listener The listener to remove.
+     * @param <T>      The type of the promise.
+     * @return True if the listener was removed, and will never be run.
+     * @throws NullPointerException If either argument is null.
+     */
+    static <T> boolean removeListener(Promise<T> promise, CompletionListener<? super T> listener) {
+        Objects.requireNonNull(promise);
+        Objects.requireNonNull(listener);
+
+        return promise instanceof ListenablePromise && ((ListenablePromise<T>) promise).removeListener(listener);
+    }
+}
@@ -1,5 +1,11 @@
 package me.joeycumines.javapromises.core;
 
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -196,6 +202,119 @@ public interface Promise<T> {
      */
     <U> Promise<U> always(BiFunction<? super T, Throwable, ? extends Promise<? extends U>> callback);
 
+    /**
+     * Specify a callback to be run on successful resolution {@code FULFILLED} of this, and return a new promise, that
+     * will fulfill with the value returned by the callback. This is the equivalent of
+     * {@code then((value, fulfill) -> fulfill.accept(callback.apply(value)))}, for pure transformations, which
+     * implementations should override to avoid the intermediate consumer, or promise.
+     * <p>
+     * The callback will be run as soon as possible (but not inline) if {@code this} is already {@code FULFILLED}.
+     * <p>
+     * If an exception is thrown within the callback, then the returned promise will be {@code REJECTED}, with that
+     * exception.
+     * <p>
+     * If {@code this} resolved with the {@code REJECTED} state, then the returned promise will reflect the state and
+     * value of {@code this}, and the <b>callback will not be run</b>.
+     *
+     * @param callback The transformation which will be performed if {@code this} resolves successfully.
+     * @param <U>      The return type of the new promise.
+     * @return A promise which will resolve after the previous promise AND the callback.
+     * @throws NullPointerException If callback is null.
+     */
+    default <U> Promise<U> map(Function<? super T, ? extends U> callback) {
+        Objects.requireNonNull(callback);
+        return this.then((value, fulfill) -> fulfill.accept(callback.apply(value)));
+    }
+
+    /**
+     * Specify a callback to be run if this resolves with a failed state {@code REJECTED}, and return a new promise,
+     * that will fulfill with the value returned by the callback. This is the equivalent of
+     * {@code except((exception, fulfill) -> fulfill.accept(callback.apply(exception)))}, which implementations should
+     * override to avoid the intermediate consumer, or promise.
+     * <p>
+     * The callback will be run as soon as possible (but not inline) if {@code this} is already {@code REJECTED}.
+     * <p>
+     * If an exception is thrown within the callback, then the returned promise will be {@code REJECTED}, with that
+     * exception.
+     * <p>
+     * If {@code this} resolved with the {@code FULFILLED} state, then the returned promise will reflect the state and
+     * value of {@code this}, and the <b>callback will not be run</b>.
+     *
+     * @param callback The operation which will be performed if the promise resolves exceptionally.
+     * @return A promise which will resolve after the previous promise AND the callback.
+     * @throws NullPointerException If callback is null.
+     */
+    default Promise<T> exceptMap(Function<Throwable, ? extends T> callback) {
+        Objects.requireNonNull(callback);
+        return this.except((exception, fulfill) -> fulfill.accept(callback.apply(exception)));
+    }
+
+    /**
+     * The same as {@link #then(Function)}, but the callback is also passed a context object, so that it need not
+     * capture anything, allowing it to be a static method reference, or non-capturing lambda, which is not allocated
+     * per call.
+     * <p>
+     * The default implementation simply captures the context, implementations should override it to store the context
+     * and callback directly, such that chaining allocates only the returned promise.
+     *
+     * @param context  The first argument to the callback, may be null.
+     * @param callback The operation which will be performed if the promise resolves successfully.
+     * @param <C>      The type of the context.
+     * @param <U>      The return type of the new promise, dictated by the callback promise's return type.
+     * @return A promise which will resolve after the previous promise AND any inner operations.
+     * @throws NullPointerException If callback is null.
+     */
+    default <C, U> Promise<U> then(C context, BiFunction<? super C, ? super T, ? extends Promise<? extends U>> callback) {
+        Objects.requireNonNull(callback);
+        return this.then((value) -> callback.apply(context, value));
+    }
+
+    /**
+     * The same as {@link #except(Function)}, but the callback is also passed a context object.
+     *
+     * @param context  The first argument to the callback, may be null.
+     * @param callback The operation which will be performed if the promise resolves exceptionally.
+     * @param <C>      The type of the context.
+     * @return A promise which will resolve after the previous promise AND any inner operations.
+     * @throws NullPointerException If callback is null.
+     * @see #then(Object, BiFunction)
+     */
+    default <C> Promise<T> except(C context, BiFunction<? super C, Throwable, ? extends Promise<? extends T>> callback) {
+        Objects.requireNonNull(callback);
+        return this.except((exception) -> callback.apply(context, exception));
+    }
+
+    /**
+     * The same as {@link #map(Function)}, but the callback is also passed a context object.
+     *
+     * @param context  The first argument to the callback, may be null.
+     * @param callback The transformation which will be performed if {@code this} resolves successfully.
+     * @param <C>      The type of the context.
+     * @param <U>      The return type of the new promise.
+     * @return A promise which will resolve after the previous promise AND the callback.
+     * @throws NullPointerException If callback is null.
+     * @see #then(Object, BiFunction)
+     */
+    default <C, U> Promise<U> map(C context, BiFunction<? super C, ? super T, ? extends U> callback) {
+        Objects.requireNonNull(callback);
+        return this.map((value) -> callback.apply(context, value));
+    }
+
+    /**
+     * The same as {@link #exceptMap(Function)}, but the callback is also passed a context object.
+     *
+     * @param context  The first argument to the callback, may be null.
+     * @param callback The operation which will be performed if the promise resolves exceptionally.
+     * @param <C>      The type of the context.
+     * @return A promise which will resolve after the previous promise AND the callback.
+     * @throws NullPointerException If callback is null.
+     * @see #then(Object, BiFunction)
+     */
+    default <C> Promise<T> exceptMap(C context, BiFunction<? super C, Throwable, ? extends T> callback) {
+        Objects.requireNonNull(callback);
+        return this.exceptMap((exception) -> callback.apply(context, exception));
+    }
+
     /**
      * Calling this method will block the current thread until {@code this} is resolved (<b>not</b> {@code PENDING}).
      * <p>
@@ -220,4 +339,193 @@ public interface Promise<T> {
      * @see #sync()
      */
     Throwable exceptSync();
+
+    /**
+     * Attempt to cancel {@code this}, which will cause it to resolve as {@code REJECTED} with a
+     * {@link CancellationException}, if it is still {@code PENDING}.
+     * <p>
+     * Cancellation propagates like any other rejection, so promises chained from {@code this} will reject in turn,
+     * without running then callbacks. Implementations should also stop (or never start) any pending work associated
+     * with {@code this}, where possible, and stop referencing it from the promise it was chained from.
+     * <p>
+     * The default implementation does not support cancellation, and always returns false.
+     *
+     * @return True if {@code this} was cancelled by this call.
+     */
+    default boolean cancel() {
+        return false;
+    }
+
+    /**
+     * @return True if {@code this} resolved as {@code REJECTED} with a {@link CancellationException}.
+     * @see #cancel()
+     */
+    default boolean isCancelled() {
+        return PromiseState.REJECTED == this.getState() && this.exceptSync() instanceof CancellationException;
+    }
+
+    /**
+     * Block the current thread until {@code this} is resolved, the thread is interrupted, or the timeout elapses.
+     * <p>
+     * The default implementation waits using {@link #always(BiFunction)}, implementations should override it with
+     * something cheaper, if possible.
+     *
+     * @param timeout The max time to wait, a value less than or equal to zero will not wait at all.
+     * @param unit    The unit of the timeout.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException     If the timeout elapsed, and {@code this} is still {@code PENDING}.
+     * @throws NullPointerException If unit is null.
+     * @see #sync()
+     */
+    default void sync(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        Objects.requireNonNull(unit);
+
+        if (PromiseState.PENDING != this.getState()) {
+            return;
+        }
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        this.always((r, e) -> {
+            latch.countDown();
+            return null;
+        });
+
+        if (!latch.await(timeout, unit) && PromiseState.PENDING == this.getState()) {
+            throw new TimeoutException();
+        }
+    }
+
+    /**
+     * Block the current thread until {@code this} is resolved, the thread is interrupted, or the timeout elapses.
+     * <p>
+     * Timeouts too large to be represented in nanoseconds will be treated as the max possible timeout.
+     *
+     * @param timeout The max time to wait, a value less than or equal to zero will not wait at all.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException     If the timeout elapsed, and {@code this} is still {@code PENDING}.
+     * @throws NullPointerException If timeout is null.
+     * @see #sync(long, TimeUnit)
+     */
+    default void sync(Duration timeout) throws InterruptedException, TimeoutException {
+        long nanos;
+
+        try {
+            nanos = timeout.toNanos();
+        } catch (ArithmeticException e) {
+            nanos = timeout.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+
+        this.sync(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Block the current thread until {@code this} is resolved, or the thread is interrupted.
+     * <p>
+     * The default implementation waits using {@link #always(BiFunction)}, implementations should override it with
+     * something cheaper, if possible.
+     *
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @see #sync()
+     */
+    default void interruptibleSync() throws InterruptedException {
+        if (PromiseState.PENDING != this.getState()) {
+            return;
+        }
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        this.always((r, e) -> {
+            latch.countDown();
+            return null;
+        });
+
+        latch.await();
+    }
+
+    /**
+     * Like {@link #thenSync()}, but will stop waiting if the timeout elapses, or the thread is interrupted.
+     *
+     * @param timeout The max time to wait.
+     * @param unit    The unit of the timeout.
+     * @return The resolved value, or {@code null} if {@code REJECTED}.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException     If the timeout elapsed, and {@code this} is still {@code PENDING}.
+     * @throws NullPointerException If unit is null.
+     * @see #sync(long, TimeUnit)
+     */
+    default T thenSync(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        this.sync(timeout, unit);
+        return this.thenSync();
+    }
+
+    /**
+     * Like {@link #thenSync()}, but will stop waiting if the timeout elapses, or the thread is interrupted.
+     *
+     * @param timeout The max time to wait.
+     * @return The resolved value, or {@code null} if {@code REJECTED}.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException     If the timeout elapsed, and {@code this} is still {@code PENDING}.
+     * @throws NullPointerException If timeout is null.
+     * @see #sync(Duration)
+     */
+    default T thenSync(Duration timeout) throws InterruptedException, TimeoutException {
+        this.sync(timeout);
+        return this.thenSync();
+    }
+
+    /**
+     * Like {@link #thenSync()}, but will stop waiting if the thread is interrupted.
+     *
+     * @return The resolved value, or {@code null} if {@code REJECTED}.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @see #interruptibleSync()
+     */
+    default T interruptibleThenSync() throws InterruptedException {
+        this.interruptibleSync();
+        return this.thenSync();
+    }
+
+    /**
+     * Like {@link #exceptSync()}, but will stop waiting if the timeout elapses, or the thread is interrupted.
+     *
+     * @param timeout The max time to wait.
+     * @param unit    The unit of the timeout.
+     * @return The reason for rejection, or {@code null} if {@code FULFILLED}.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException     If the timeout elapsed, and {@code this} is still {@code PENDING}.
+     * @throws NullPointerException If unit is null.
+     * @see #sync(long, TimeUnit)
+     */
+    default Throwable exceptSync(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        this.sync(timeout, unit);
+        return this.exceptSync();
+    }
+
+    /**
+     * Like {@link #exceptSync()}, but will stop waiting if the timeout elapses, or the thread is interrupted.
+     *
+     * @param timeout The max time to wait.
+     * @return The reason for rejection, or {@code null} if {@code FULFILLED}.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @throws TimeoutException     If the timeout elapsed, and {@code this} is still {@code PENDING}.
+     * @throws NullPointerException If timeout is null.
+     * @see #sync(Duration)
+     */
+    default Throwable exceptSync(Duration timeout) throws InterruptedException, TimeoutException {
+        this.sync(timeout);
+        return this.exceptSync();
+    }
+
+    /**
+     * Like {@link #exceptSync()}, but will stop waiting if the thread is interrupted.
+     *
+     * @return The reason for rejection, or {@code null} if {@code FULFILLED}.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     * @see #interruptibleSync()
+     */
+    default Throwable interruptibleExceptSync() throws InterruptedException {
+        this.interruptibleSync();
+        return this.exceptSync();
+    }
 }
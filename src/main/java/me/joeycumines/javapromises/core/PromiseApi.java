@@ -2,10 +2,10 @@ package me.joeycumines.javapromises.core;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.function.*;
 
 /**
  * Helpers for the creation and use promises. It is not required to use this implementation, but it is designed to work
@@ -19,9 +19,7 @@ public abstract class PromiseApi implements PromiseFactory {
      */
     @SafeVarargs
     public final <T> Promise<List<T>> all(Promise<? extends T> promise, Promise<? extends T>... promises) throws NullPointerException, IllegalArgumentException {
-        List<Promise<? extends T>> promiseList = new ArrayList<>(Arrays.asList(promises));
-        promiseList.add(0, promise);
-        return this.all(promiseList);
+        return this.all(toList(promise, promises));
     }
 
     /**
@@ -29,9 +27,7 @@ public abstract class PromiseApi implements PromiseFactory {
      */
     @SafeVarargs
     public final <T> Promise<T> race(Promise<? extends T> promise, Promise<? extends T>... promises) throws NullPointerException, IllegalArgumentException {
-        List<Promise<? extends T>> promiseList = new ArrayList<>(Arrays.asList(promises));
-        promiseList.add(0, promise);
-        return this.race(promiseList);
+        return this.race(toList(promise, promises));
     }
 
     /**
@@ -39,9 +35,7 @@ public abstract class PromiseApi implements PromiseFactory {
      */
     @SafeVarargs
     public final <T> Promise<T> any(Promise<? extends T> promise, Promise<? extends T>... promises) throws NullPointerException, IllegalArgumentException {
-        List<Promise<? extends T>> promiseList = new ArrayList<>(Arrays.asList(promises));
-        promiseList.add(0, promise);
-        return this.any(promiseList);
+        return this.any(toList(promise, promises));
     }
 
     /**
@@ -53,6 +47,10 @@ public abstract class PromiseApi implements PromiseFactory {
      * If <b>any</b> of the input promises are already rejected, then the <b>first</b> encountered rejected promise
      * (using a iterator), will have it's rejection reason propagated to the returned promise.
      * <p>
+     * Each value is written directly into it's slot in a fixed-size array, as it arrives, which is copied once into
+     * the new {@link ArrayList} the returned promise fulfills with. A {@link java.util.Collection} is used as is, other
+     * iterables are copied first.
+     * <p>
      * <b>Unlike the JS promise spec, an empty iterable WILL throw an {@link IllegalArgumentException}.</b>
      * <p>
      * Any null argument encountered will result in a {@link NullPointerException} (MAY not be triggered by an input
@@ -65,24 +63,29 @@ public abstract class PromiseApi implements PromiseFactory {
      * @throws IllegalArgumentException If the iterable was empty.
      */
     public <T> Promise<List<T>> all(Iterable<? extends Promise<? extends T>> promiseIterable) throws NullPointerException, IllegalArgumentException {
-        Objects.requireNonNull(promiseIterable);
-
-        Iterator<? extends Promise<? extends T>> iterator = promiseIterable.iterator();
-
-        // we require at least one value to work with
-        if (!iterator.hasNext()) {
-            throw new IllegalArgumentException("the provided iterable cannot be empty");
-        }
+        return this.all(promiseIterable, false);
+    }
 
-        // we store the promises as we validate them, so they can be guaranteed not null
-        List<Promise<? extends T>> promiseList = new ArrayList<>();
+    /**
+     * Like {@link #all(Iterable)}, but if the returned promise rejects, any inputs that are still {@code PENDING} will
+     * be cancelled, using {@link Promise#cancel()}, if cancelRemaining is set.
+     *
+     * @param promiseIterable The promises to resolve. Must not be null, and must contain no null values.
+     * @param cancelRemaining If pending inputs should be cancelled, once the returned promise rejects.
+     * @param <T>             The type of the promise to return.
+     * @return A promise that will resolve successfully <b>only</b> if all inputs do, with their values in a list.
+     * @throws NullPointerException     If the promiseIterable parameter, or any of it's values, are null.*
+     * @throws IllegalArgumentException If the iterable was empty.
+     */
+    public <T> Promise<List<T>> all(Iterable<? extends Promise<? extends T>> promiseIterable, boolean cancelRemaining) throws NullPointerException, IllegalArgumentException {
+        Collection<? extends Promise<? extends T>> promiseCollection = toCollection(promiseIterable);
 
         // validate the input, and see if we can exit early
 
+        int size = 0;
         boolean fulfilled = true;
 
-        while (iterator.hasNext()) {
-            Promise<? extends T> promise = iterator.next();
+        for (Promise<? extends T> promise : promiseCollection) {
             Objects.requireNonNull(promise);
 
             PromiseState state = promise.getState();
@@ -97,57 +100,42 @@ public abstract class PromiseApi implements PromiseFactory {
                 fulfilled = false;
             }
 
-            promiseList.add(promise);
+            size++;
         }
 
-        // early exit - they are all fulfilled
-        if (fulfilled) {
-            List<T> resultList = new ArrayList<>();
-            promiseList.forEach((promise) -> resultList.add(promise.thenSync()));
-
-            return this.fulfill(resultList);
+        // we require at least one value to work with
+        if (0 == size) {
+            throw new IllegalArgumentException("the provided iterable cannot be empty");
         }
 
-        // we have to do this if we want to support early resolution
-        BlockingPromise<List<T>> blocker = new BlockingPromise<>(this);
+        Object[] values = new Object[size];
 
-        // keep track of how many things are completed
-        AtomicInteger counter = new AtomicInteger(0);
+        // early exit - they are all fulfilled
+        if (fulfilled) {
+            int index = 0;
 
-        // every time a promise completes successfully
-        Runnable complete = () -> {
-            // increment counter - and if we haven't completed everything, we can exit for now
-            if (counter.incrementAndGet() != promiseList.size()) {
-                return;
+            for (Promise<? extends T> promise : promiseCollection) {
+                values[index++] = promise.thenSync();
             }
 
-            // we are all done, build a result set and return
-
-            List<T> resultList = new ArrayList<>();
-            promiseList.forEach((promise) -> resultList.add(promise.thenSync()));
+            return this.fulfill(AllListener.toList(values));
+        }
 
-            blocker.fulfill(resultList);
-        };
+        // write each value into it's slot as it arrives, whoever writes the last one publishes the result
+        FanIn<List<T>> fanIn = new FanIn<>(this.defer(), size, cancelRemaining);
 
-        // uses the validated input, register callbacks for each promise
-        promiseList.forEach((promise) -> promise.always((r, e) -> {
-            // nothing to do if we already resolved
-            if (PromiseState.PENDING != blocker.getPromise().getState()) {
-                return null;
-            }
+        int index = 0;
 
-            // reject the returned promise
-            if (null != e) {
-                blocker.reject(e);
-                return null;
+        for (Promise<? extends T> promise : promiseCollection) {
+            if (index == size || fanIn.isSettled()) {
+                break;
             }
 
-            // will fulfill if we can
-            complete.run();
-            return null;
-        }));
+            fanIn.listen(index, promise, new AllListener<>(fanIn, values, index));
+            index++;
+        }
 
-        return blocker.getPromise();
+        return fanIn.getPromise();
     }
 
     /**
@@ -169,21 +157,27 @@ public abstract class PromiseApi implements PromiseFactory {
      * @throws IllegalArgumentException If the iterable was empty.
      */
     public <T> Promise<T> race(Iterable<? extends Promise<? extends T>> promiseIterable) throws NullPointerException, IllegalArgumentException {
-        Objects.requireNonNull(promiseIterable);
-
-        Iterator<? extends Promise<? extends T>> iterator = promiseIterable.iterator();
+        return this.race(promiseIterable, false);
+    }
 
-        // we require at least one value to work with
-        if (!iterator.hasNext()) {
-            throw new IllegalArgumentException("the provided iterable cannot be empty");
-        }
+    /**
+     * Like {@link #race(Iterable)}, but once the returned promise resolves, any inputs that are still {@code PENDING}
+     * will be cancelled, using {@link Promise#cancel()}, if cancelRemaining is set.
+     *
+     * @param promiseIterable The promises to race. Must not be null, and must contain no null values.
+     * @param cancelRemaining If pending inputs should be cancelled, once the returned promise resolves.
+     * @param <T>             The type of the promise to return.
+     * @return A promise that will resolve with the same state and value as the <b>first</b> input promise to resolve.
+     * @throws NullPointerException     If the promiseIterable parameter, or any of it's values, are null.*
+     * @throws IllegalArgumentException If the iterable was empty.
+     */
+    public <T> Promise<T> race(Iterable<? extends Promise<? extends T>> promiseIterable, boolean cancelRemaining) throws NullPointerException, IllegalArgumentException {
+        Collection<? extends Promise<? extends T>> promiseCollection = toCollection(promiseIterable);
 
-        // we store the promises as we validate them, so they can be guaranteed not null
-        List<Promise<? extends T>> promiseList = new ArrayList<>();
+        int size = 0;
 
         // validate the input, and see if we can exit early
-        while (iterator.hasNext()) {
-            Promise<? extends T> promise = iterator.next();
+        for (Promise<? extends T> promise : promiseCollection) {
             Objects.requireNonNull(promise);
 
             PromiseState promiseState = promise.getState();
@@ -195,29 +189,30 @@ public abstract class PromiseApi implements PromiseFactory {
                 return this.reject(promise.exceptSync());
             }
 
-            promiseList.add(promise);
+            size++;
         }
 
-        // we have to do this if we want to support early resolution
-        BlockingPromise<T> blocker = new BlockingPromise<>(this);
+        // we require at least one value to work with
+        if (0 == size) {
+            throw new IllegalArgumentException("the provided iterable cannot be empty");
+        }
 
-        // uses the validated input, register callbacks for each promise
-        promiseList.forEach((promise) -> promise.always((r, e) -> {
-            // nothing to do if we already resolved
-            if (PromiseState.PENDING != blocker.getPromise().getState()) {
-                return null;
-            }
+        // the first to resolve wins, every input shares the same listener
+        FanIn<T> fanIn = new FanIn<>(this.defer(), size, cancelRemaining);
+        RaceListener<T> listener = new RaceListener<>(fanIn);
 
-            if (null != e) {
-                blocker.reject(e);
-                return null;
+        int index = 0;
+
+        for (Promise<? extends T> promise : promiseCollection) {
+            if (index == size || fanIn.isSettled()) {
+                break;
             }
 
-            blocker.fulfill(r);
-            return null;
-        }));
+            fanIn.listen(index, promise, listener);
+            index++;
+        }
 
-        return blocker.getPromise();
+        return fanIn.getPromise();
     }
 
     /**
@@ -238,23 +233,28 @@ public abstract class PromiseApi implements PromiseFactory {
      * @throws IllegalArgumentException If the iterable was empty.
      */
     public <T> Promise<T> any(Iterable<? extends Promise<? extends T>> promiseIterable) throws NullPointerException, IllegalArgumentException {
-        Objects.requireNonNull(promiseIterable);
-
-        Iterator<? extends Promise<? extends T>> iterator = promiseIterable.iterator();
-
-        // we require at least one value to work with
-        if (!iterator.hasNext()) {
-            throw new IllegalArgumentException("the provided iterable cannot be empty");
-        }
+        return this.any(promiseIterable, false);
+    }
 
-        // we store the promises as we validate them, so they can be guaranteed not null
-        List<Promise<? extends T>> promiseList = new ArrayList<>();
+    /**
+     * Like {@link #any(Iterable)}, but if the returned promise fulfills, any inputs that are still {@code PENDING} will
+     * be cancelled, using {@link Promise#cancel()}, if cancelRemaining is set.
+     *
+     * @param promiseIterable The promises to watch. Must not be null, and must contain no null values.
+     * @param cancelRemaining If pending inputs should be cancelled, once the returned promise fulfills.
+     * @param <T>             The type of promise to return.
+     * @return A new promise, that will fulfill the same as the first input to do so, or reject when <b>all</b> do.
+     * @throws NullPointerException     If the promiseIterable parameter, or any of it's values, are null.*
+     * @throws IllegalArgumentException If the iterable was empty.
+     */
+    public <T> Promise<T> any(Iterable<? extends Promise<? extends T>> promiseIterable, boolean cancelRemaining) throws NullPointerException, IllegalArgumentException {
+        Collection<? extends Promise<? extends T>> promiseCollection = toCollection(promiseIterable);
 
+        int size = 0;
         boolean rejected = true;
 
         // validate the input, and see if we can exit early
-        while (iterator.hasNext()) {
-            Promise<? extends T> promise = iterator.next();
+        for (Promise<? extends T> promise : promiseCollection) {
             Objects.requireNonNull(promise);
 
             PromiseState promiseState = promise.getState();
@@ -269,44 +269,221 @@ public abstract class PromiseApi implements PromiseFactory {
                 rejected = false;
             }
 
-            promiseList.add(promise);
+            size++;
         }
 
+        // we require at least one value to work with
+        if (0 == size) {
+            throw new IllegalArgumentException("the provided iterable cannot be empty");
+        }
+
+        Throwable[] exceptions = new Throwable[size];
+
         // if we were actually all rejected we can do so immediately
         if (rejected) {
-            List<Throwable> exceptionList = new ArrayList<>();
-            promiseList.forEach((promise) -> exceptionList.add(promise.exceptSync()));
-            return this.reject(new AggregateException(exceptionList));
+            int index = 0;
+
+            for (Promise<? extends T> promise : promiseCollection) {
+                exceptions[index++] = promise.exceptSync();
+            }
+
+            return this.reject(new AggregateException(Arrays.asList(exceptions)));
+        }
+
+        // count the rejections, whoever writes the last one rejects, unless one fulfilled first
+        FanIn<T> fanIn = new FanIn<>(this.defer(), size, cancelRemaining);
+
+        int index = 0;
+
+        for (Promise<? extends T> promise : promiseCollection) {
+            if (index == size || fanIn.isSettled()) {
+                break;
+            }
+
+            fanIn.listen(index, promise, new AnyListener<>(fanIn, exceptions, index));
+            index++;
         }
 
-        // we have to do this if we want to support early resolution
-        BlockingPromise<T> blocker = new BlockingPromise<>(this);
+        return fanIn.getPromise();
+    }
 
-        // keep track of how many we have rejected
-        AtomicInteger countRejected = new AtomicInteger(0);
+    /**
+     * The state of a single call to {@link #all(Iterable)}, {@link #race(Iterable)}, or {@link #any(Iterable)}, which
+     * tracks the inputs, so that it can stop listening to them (and cancel them) if it settles early.
+     */
+    private static final class FanIn<T> {
+        private final Deferred<T> deferred;
+        private final CompletionCounter counter;
+        private final Promise<?>[] promises;
+        private final CompletionListener<?>[] listeners;
+        private final boolean cancelRemaining;
+
+        private FanIn(Deferred<T> deferred, int size, boolean cancelRemaining) {
+            this.deferred = deferred;
+            this.counter = CompletionCounter.create(size);
+            this.promises = new Promise<?>[size];
+            this.listeners = new CompletionListener<?>[size];
+            this.cancelRemaining = cancelRemaining;
+        }
 
-        promiseList.forEach((promise) -> promise.always((r, e) -> {
-            // nothing to do if we already resolved
-            if (PromiseState.PENDING != blocker.getPromise().getState()) {
-                return null;
+        private Promise<T> getPromise() {
+            return this.deferred.getPromise();
+        }
+
+        private boolean isSettled() {
+            return this.counter.isFinished();
+        }
+
+        private <U> void listen(int index, Promise<U> promise, CompletionListener<? super U> listener) {
+            this.promises[index] = promise;
+            this.listeners[index] = listener;
+
+            ListenablePromise.addListener(promise, listener);
+
+            // we may have settled early while the inputs were being added, and missed this one
+            if (this.isSettled()) {
+                this.detach();
             }
+        }
+
+        /**
+         * Count down the input at index, returning true if it was the last.
+         */
+        private boolean countDown(int index) {
+            return this.counter.countDown(index);
+        }
 
-            if (null != e) {
-                if (countRejected.incrementAndGet() == promiseList.size()) {
-                    List<Throwable> exceptionList = new ArrayList<>();
-                    promiseList.forEach((p) -> exceptionList.add(p.exceptSync()));
-                    blocker.reject(new AggregateException(exceptionList));
+        /**
+         * Fulfill early, if nothing else has resolved this yet.
+         */
+        private void fulfillEarly(T value) {
+            if (this.counter.tryFinish()) {
+                this.deferred.fulfill(value);
+                this.detach();
+            }
+        }
+
+        /**
+         * Reject early, if nothing else has resolved this yet.
+         */
+        private void rejectEarly(Throwable exception) {
+            if (this.counter.tryFinish()) {
+                this.deferred.reject(exception);
+                this.detach();
+            }
+        }
+
+        /**
+         * Stop listening to any inputs that are still pending, so they don't keep this alive.
+         */
+        @SuppressWarnings("unchecked")
+        private void detach() {
+            for (int x = 0; x < this.promises.length; x++) {
+                Promise<Object> promise = (Promise<Object>) this.promises[x];
+                CompletionListener<Object> listener = (CompletionListener<Object>) this.listeners[x];
+
+                // not yet added, or resolved (in which case the listener already ran)
+                if (null == promise || null == listener || PromiseState.PENDING != promise.getState()) {
+                    continue;
                 }
 
-                return null;
+                ListenablePromise.removeListener(promise, listener);
+
+                if (this.cancelRemaining) {
+                    promise.cancel();
+                }
             }
+        }
+    }
 
-            blocker.fulfill(r);
+    /**
+     * Listens to a single input of {@link #all(Iterable)}, writing it's value to the matching slot.
+     */
+    private static final class AllListener<T> implements CompletionListener<Object> {
+        private final FanIn<List<T>> fanIn;
+        private final Object[] values;
+        private final int index;
+
+        private AllListener(FanIn<List<T>> fanIn, Object[] values, int index) {
+            this.fanIn = fanIn;
+            this.values = values;
+            this.index = index;
+        }
 
-            return null;
-        }));
+        @Override
+        public void onComplete(Object value, Throwable exception) {
+            // only the first rejection counts, and nothing counts after that
+            if (null != exception) {
+                this.fanIn.rejectEarly(exception);
+                return;
+            }
+
+            this.values[this.index] = value;
+
+            // counting down publishes the write to the values array, to whoever finishes last
+            if (this.fanIn.countDown(this.index)) {
+                this.fanIn.deferred.fulfill(toList(this.values));
+            }
+        }
+
+        /**
+         * Publish the values as a new, mutable, {@link ArrayList}, copied once, so callers may modify it.
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> List<T> toList(Object[] values) {
+            return new ArrayList<>((List<T>) Arrays.asList(values));
+        }
+    }
+
+    /**
+     * Listens to every input of {@link #race(Iterable)}, the first to resolve wins.
+     */
+    private static final class RaceListener<T> implements CompletionListener<T> {
+        private final FanIn<T> fanIn;
+
+        private RaceListener(FanIn<T> fanIn) {
+            this.fanIn = fanIn;
+        }
+
+        @Override
+        public void onComplete(T value, Throwable exception) {
+            if (null != exception) {
+                this.fanIn.rejectEarly(exception);
+                return;
+            }
+
+            this.fanIn.fulfillEarly(value);
+        }
+    }
+
+    /**
+     * Listens to a single input of {@link #any(Iterable)}, writing it's exception to the matching slot.
+     */
+    private static final class AnyListener<T> implements CompletionListener<T> {
+        private final FanIn<T> fanIn;
+        private final Throwable[] exceptions;
+        private final int index;
+
+        private AnyListener(FanIn<T> fanIn, Throwable[] exceptions, int index) {
+            this.fanIn = fanIn;
+            this.exceptions = exceptions;
+            this.index = index;
+        }
+
+        @Override
+        public void onComplete(T value, Throwable exception) {
+            // only the first fulfillment counts, and nothing counts after that
+            if (null == exception) {
+                this.fanIn.fulfillEarly(value);
+                return;
+            }
 
-        return blocker.getPromise();
+            this.exceptions[this.index] = exception;
+
+            if (this.fanIn.countDown(this.index)) {
+                this.fanIn.deferred.reject(new AggregateException(Arrays.asList(this.exceptions)));
+            }
+        }
     }
 
     /**
@@ -323,8 +500,10 @@ public abstract class PromiseApi implements PromiseFactory {
      * If any action returns a rejected promise or throws any exceptions, then the returned promise will resolve as
      * {@code REJECTED}, with the same exception.
      * <p>
-     * It should be noted that the iterable is walked <b>before</b> the async operations are performed, in order to
-     * improve thread safety (the values are shallow copied locally).
+     * It should be noted that the iterable is <b>not</b> walked first, the next value is only taken once the promise
+     * returned by the previous action resolves, so the iterator may be lazy (or unbounded), and must tolerate being
+     * used by different threads (though never concurrently). Iteration runs in constant stack, and only the current
+     * value is in flight, see {@link #forEach(Iterable, Function)} if the results are not needed.
      * <p>
      * Any null parameters will result in a {@link NullPointerException}.
      *
@@ -336,18 +515,616 @@ public abstract class PromiseApi implements PromiseFactory {
      * @throws NullPointerException If any parameters are null.
      */
     public <T, U> Promise<List<U>> each(Iterable<? extends T> inputIterable, Function<? super T, ? extends Promise<? extends U>> action) throws NullPointerException {
+        return this.mapConcurrent(inputIterable, 1, true, action);
+    }
+
+    /**
+     * Like {@link #each(Iterable, Function)}, performing the action on each input, in series, but the fulfillment
+     * values are discarded, rather than collected, so this runs in constant memory, regardless of the size of the
+     * input.
+     *
+     * @param inputIterable The source of the values to iterate.
+     * @param action        The action to perform on each value.
+     * @param <T>           The type of the input values.
+     * @return A new promise, that will fulfill with null once every action has resolved successfully.
+     * @throws NullPointerException If any parameters are null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Promise<Void> forEach(Iterable<? extends T> inputIterable, Function<? super T, ? extends Promise<?>> action) throws NullPointerException {
+        Objects.requireNonNull(inputIterable);
+        Objects.requireNonNull(action);
+
+        MapConcurrent<T, Object> map = new MapConcurrent<>(this, inputIterable.iterator(), 1, true, false, action);
+        this.attempt(map::drain);
+
+        // no results are collected, so this always fulfills with null
+        return (Promise<Void>) (Promise<?>) map.deferred.getPromise();
+    }
+
+    /**
+     * @see #mapConcurrent(Iterable, int, boolean, Function)
+     */
+    public <T, U> Promise<List<U>> mapConcurrent(Iterable<? extends T> inputIterable, int parallelism, Function<? super T, ? extends Promise<? extends U>> action) throws NullPointerException, IllegalArgumentException {
+        return this.mapConcurrent(inputIterable, parallelism, true, action);
+    }
+
+    /**
+     * Given an iterable of inputs, and an action, which returns a promise, perform the action on each input, with at
+     * most {@code parallelism} of the promises returned by the action {@code PENDING} at any one time. A parallelism of
+     * one is equivalent to {@link #each(Iterable, Function)}. A null return value from the action is allowed, it will
+     * be treated as a null fulfillment.
+     * <p>
+     * If all actions complete successfully, the returned {@link Promise} will fulfill with a {@link List}, containing
+     * an element for each element iterated. If ordered, the elements will be in the same order as the input, otherwise
+     * they will be in the order the actions completed.
+     * <p>
+     * If any action returns a rejected promise or throws any exceptions, then the returned promise will resolve as
+     * {@code REJECTED}, with the same exception, and no further actions will be started. The same applies to any
+     * exceptions thrown by the iterator.
+     * <p>
+     * Unlike {@link #each(Iterable, Function)}, the iterable is <b>not</b> walked first, the next input is only taken
+     * once there is room for another action, so the iterator must tolerate being used by different threads (though
+     * never concurrently).
+     * <p>
+     * Draining the input starts asynchronously, using {@link #attempt(Runnable)}, after which actions are called
+     * directly by the thread taking the input, that one, or whichever thread resolved the promise of an earlier action.
+     * <p>
+     * Any null parameters will result in a {@link NullPointerException}.
+     *
+     * @param inputIterable The source of the values to iterate.
+     * @param parallelism   The maximum number of actions to have pending at once, must be at least one.
+     * @param ordered       If the output should be in the same order as the input, rather than the completion order.
+     * @param action        The action to perform on each value.
+     * @param <T>           The type of the input values.
+     * @param <U>           The type of the output values.
+     * @return A new promise, that will resolve with a {@link List} of the fulfilled values.
+     * @throws NullPointerException     If any parameters are null.
+     * @throws IllegalArgumentException If parallelism is less than one.
+     */
+    public <T, U> Promise<List<U>> mapConcurrent(Iterable<? extends T> inputIterable, int parallelism, boolean ordered, Function<? super T, ? extends Promise<? extends U>> action) throws NullPointerException, IllegalArgumentException {
         Objects.requireNonNull(inputIterable);
         Objects.requireNonNull(action);
 
-        // make a copy of the iterable for concurrent access
-        List<T> inputList = new ArrayList<>();
-        inputIterable.forEach(inputList::add);
-        inputList = Collections.synchronizedList(inputList);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, got " + parallelism);
+        }
+
+        MapConcurrent<T, U> map = new MapConcurrent<>(this, inputIterable.iterator(), parallelism, ordered, true, action);
+        this.attempt(map::drain);
+
+        return map.deferred.getPromise();
+    }
+
+    /**
+     * The state of a single call to {@link #mapConcurrent(Iterable, int, boolean, Function)}.
+     * <p>
+     * Actions are started by whichever thread is draining (initially a single task started with
+     * {@link #attempt(Runnable)}, then the thread that completed the last action), only one thread drains at a time,
+     * and any requests to drain while that is happening are picked up by that thread, so the iterator is never used
+     * concurrently, and completions never recurse. Actions are called directly, so there is no extra promise, or task,
+     * per input.
+     */
+    private static final class MapConcurrent<T, U> {
+        private final Deferred<List<U>> deferred;
+        private final Iterator<? extends T> iterator;
+        private final int parallelism;
+        private final boolean ordered;
+        private final Function<? super T, ? extends Promise<? extends U>> action;
+
+        /**
+         * The number of requests to drain, only the thread that increments this from zero drains.
+         */
+        private final AtomicInteger wip;
+
+        /**
+         * The output, guarded by this, or null if the results are discarded.
+         */
+        private final List<U> results;
+
+        /**
+         * The number of actions pending, guarded by this.
+         */
+        private int running;
+
+        /**
+         * Only accessed by the thread draining.
+         */
+        private boolean exhausted;
+
+        private volatile boolean settled;
+
+        private MapConcurrent(PromiseApi api, Iterator<? extends T> iterator, int parallelism, boolean ordered, boolean collect, Function<? super T, ? extends Promise<? extends U>> action) {
+            Objects.requireNonNull(iterator);
+
+            this.deferred = api.defer();
+            this.iterator = iterator;
+            this.parallelism = parallelism;
+            this.ordered = ordered;
+            this.action = action;
+            this.wip = new AtomicInteger(0);
+            this.results = collect ? new ArrayList<>() : null;
+            this.running = 0;
+            this.exhausted = false;
+            this.settled = false;
+        }
+
+        private void drain() {
+            // someone else is draining, they will go around again
+            if (0 != this.wip.getAndIncrement()) {
+                return;
+            }
+
+            int missed = 1;
+
+            do {
+                this.startAvailable();
+                missed = this.wip.addAndGet(-missed);
+            } while (0 != missed);
+        }
+
+        /**
+         * Start actions until we hit the parallelism limit, or run out of input.
+         */
+        private void startAvailable() {
+            while (!this.settled) {
+                // we are done once everything we started has completed
+                if (this.exhausted) {
+                    boolean done;
+
+                    synchronized (this) {
+                        done = 0 == this.running;
+                    }
+
+                    if (done && this.trySettle()) {
+                        this.deferred.fulfill(this.results);
+                    }
+
+                    return;
+                }
+
+                synchronized (this) {
+                    if (this.running >= this.parallelism) {
+                        return;
+                    }
+                }
+
+                T value;
+
+                try {
+                    if (!this.iterator.hasNext()) {
+                        this.exhausted = true;
+                        continue;
+                    }
+
+                    value = this.iterator.next();
+                } catch (Throwable e) {
+                    this.reject(e);
+                    return;
+                }
+
+                int index;
+
+                synchronized (this) {
+                    this.running++;
+
+                    if (null == this.results) {
+                        index = -1;
+                    } else {
+                        index = this.results.size();
+
+                        // reserve the slot for this value
+                        if (this.ordered) {
+                            this.results.add(null);
+                        }
+                    }
+                }
+
+                // called directly rather than through attempt, a throw is just a rejection
+                Promise<? extends U> promise;
+
+                try {
+                    promise = this.action.apply(value);
+                } catch (Throwable e) {
+                    this.reject(e);
+                    return;
+                }
+
+                if (null == promise) {
+                    this.complete(index, null);
+                } else {
+                    ListenablePromise.addListener(promise, new MapListener<U>(this, index));
+                }
+            }
+        }
+
+        private void complete(int index, U value) {
+            synchronized (this) {
+                if (null == this.results) {
+                    // discarded
+                } else if (this.ordered) {
+                    this.results.set(index, value);
+                } else {
+                    this.results.add(value);
+                }
+
+                this.running--;
+            }
+
+            this.drain();
+        }
+
+        private void reject(Throwable exception) {
+            if (this.trySettle()) {
+                this.deferred.reject(exception);
+            }
+        }
+
+        private boolean trySettle() {
+            synchronized (this) {
+                if (this.settled) {
+                    return false;
+                }
 
-        // make an output list as well
-        List<Promise<U>> outputList = Collections.synchronizedList(new ArrayList<>());
+                this.settled = true;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Listens to a single action started by {@link MapConcurrent}.
+     */
+    private static final class MapListener<U> implements CompletionListener<U> {
+        private final MapConcurrent<?, U> map;
+        private final int index;
+
+        private MapListener(MapConcurrent<?, U> map, int index) {
+            this.map = map;
+            this.index = index;
+        }
+
+        @Override
+        public void onComplete(U value, Throwable exception) {
+            if (null != exception) {
+                this.map.reject(exception);
+                return;
+            }
 
-        return this.eachRecursive(inputList, action, new AtomicInteger(0), outputList);
+            this.map.complete(this.index, value);
+        }
+    }
+
+    /**
+     * Asynchronously loop while a condition holds, calling {@code body} and waiting for the promise it returns to
+     * fulfill, before checking the condition again. The condition is checked before the first call to the body, so the
+     * body may never be called. A null return value from the body is allowed, it will be treated as a null
+     * fulfillment.
+     * <p>
+     * The loop does not chain, or nest, promises between iterations, it re-enters itself once the promise returned by
+     * the body resolves, so it runs in constant stack and memory, no matter how many iterations it takes. If the body
+     * returns a promise that is already resolved, the next iteration runs inline, on the same thread.
+     * <p>
+     * If the body returns a rejected promise, or the body or condition throws any exceptions, the loop stops, and the
+     * returned promise will reject with the same exception. If the returned promise is cancelled, the loop will stop
+     * before the next iteration.
+     * <p>
+     * Any null parameters will result in a {@link NullPointerException}.
+     *
+     * @param condition Checked before each iteration, the loop continues while it returns true.
+     * @param body      The action to perform on each iteration.
+     * @return A new promise, that will fulfill with null once the condition returns false.
+     * @throws NullPointerException If any parameters are null.
+     */
+    public Promise<Void> whileAsync(BooleanSupplier condition, Supplier<? extends Promise<?>> body) throws NullPointerException {
+        Objects.requireNonNull(condition);
+        Objects.requireNonNull(body);
+
+        WhileLoop loop = new WhileLoop(this.defer(), condition, body);
+        loop.drain();
+
+        return loop.getPromise();
+    }
+
+    /**
+     * Asynchronously fold a value, starting from {@code seed}, by repeatedly calling {@code step} with the current
+     * value, and using the fulfillment value of the promise it returns as the next value, until {@code until} returns
+     * true. The seed is checked before the first call to step, so step may never be called. A null return value from
+     * step is allowed, it will be treated as a null fulfillment.
+     * <p>
+     * This runs in constant stack and memory, and inline when step returns promises that are already resolved, as
+     * with {@link #whileAsync(BooleanSupplier, Supplier)}, which also describes how exceptions are handled.
+     * <p>
+     * Any null parameters (other than the seed) will result in a {@link NullPointerException}.
+     *
+     * @param seed  The initial value.
+     * @param step  Given the current value, returns a promise of the next value.
+     * @param until Checked against each value, including the seed, the loop stops once it returns true.
+     * @param <T>   The type of the values.
+     * @return A new promise, that will fulfill with the first value that until returns true for.
+     * @throws NullPointerException If step or until are null.
+     */
+    public <T> Promise<T> iterate(T seed, Function<? super T, ? extends Promise<? extends T>> step, Predicate<? super T> until) throws NullPointerException {
+        Objects.requireNonNull(step);
+        Objects.requireNonNull(until);
+
+        IterateLoop<T> loop = new IterateLoop<>(this.defer(), seed, step, until);
+        loop.drain();
+
+        return loop.getPromise();
+    }
+
+    /**
+     * Asynchronously call {@code body} {@code count} times, in series, with the index of each iteration (starting at
+     * zero), waiting for the promise it returns to fulfill before starting the next iteration. A null return value
+     * from the body is allowed, it will be treated as a null fulfillment.
+     * <p>
+     * This runs in constant stack and memory, and inline when the body returns promises that are already resolved, as
+     * with {@link #whileAsync(BooleanSupplier, Supplier)}, which also describes how exceptions are handled.
+     * <p>
+     * Any null parameters will result in a {@link NullPointerException}.
+     *
+     * @param count The number of iterations, may be zero.
+     * @param body  The action to perform on each iteration, given the index.
+     * @return A new promise, that will fulfill with null once every iteration has completed.
+     * @throws NullPointerException     If the body is null.
+     * @throws IllegalArgumentException If count is negative.
+     */
+    public Promise<Void> repeat(int count, IntFunction<? extends Promise<?>> body) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(body);
+
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative, got " + count);
+        }
+
+        RepeatLoop loop = new RepeatLoop(this.defer(), count, body);
+        loop.drain();
+
+        return loop.getPromise();
+    }
+
+    /**
+     * The state of a single asynchronous loop, started by {@link #whileAsync(BooleanSupplier, Supplier)} and friends.
+     * <p>
+     * Iterations are run by whichever thread is draining (the caller, or the thread that resolved the promise returned
+     * by the last iteration), in the same way as {@link MapConcurrent}, so a promise that resolves while it is being
+     * listened to, or before, never recurses.
+     *
+     * @param <T> The type of the values the loop carries between iterations.
+     * @param <R> The type of the result.
+     */
+    private abstract static class Loop<T, R> implements CompletionListener<T> {
+        private final Deferred<R> deferred;
+
+        /**
+         * The number of requests to drain, only the thread that increments this from zero drains.
+         */
+        private final AtomicInteger wip;
+
+        /**
+         * The current value, only accessed by the thread draining, or the listener, before it requests a drain.
+         */
+        private T value;
+
+        private Throwable exception;
+
+        /**
+         * If we are waiting on the promise returned by the last iteration, accessed as the value is.
+         */
+        private boolean pending;
+
+        private Loop(Deferred<R> deferred, T seed) {
+            this.deferred = deferred;
+            this.wip = new AtomicInteger(0);
+            this.value = seed;
+            this.exception = null;
+            this.pending = false;
+        }
+
+        /**
+         * @return True if the loop should stop, given the current value.
+         */
+        abstract boolean isDone(T value);
+
+        /**
+         * Perform the next iteration.
+         *
+         * @return The promise of the next value, or null.
+         */
+        abstract Promise<? extends T> step(T value);
+
+        /**
+         * @return The value to fulfill with, once done.
+         */
+        abstract R getResult(T value);
+
+        Promise<R> getPromise() {
+            return this.deferred.getPromise();
+        }
+
+        void drain() {
+            // someone else is draining, they will go around again
+            if (0 != this.wip.getAndIncrement()) {
+                return;
+            }
+
+            int missed = 1;
+
+            do {
+                this.run();
+                missed = this.wip.addAndGet(-missed);
+            } while (0 != missed);
+        }
+
+        /**
+         * Run iterations until we have to wait, or we are done.
+         */
+        @SuppressWarnings("unchecked")
+        private void run() {
+            while (!this.pending) {
+                // cancelled, or otherwise resolved externally
+                if (PromiseState.PENDING != this.getPromise().getState()) {
+                    return;
+                }
+
+                if (null != this.exception) {
+                    this.settle(null, this.exception);
+                    return;
+                }
+
+                Promise<? extends T> promise;
+
+                try {
+                    if (this.isDone(this.value)) {
+                        this.settle(this.getResult(this.value), null);
+                        return;
+                    }
+
+                    promise = this.step(this.value);
+                } catch (Throwable e) {
+                    this.settle(null, e);
+                    return;
+                }
+
+                if (null == promise) {
+                    this.value = null;
+                    continue;
+                }
+
+                // already resolved, no need to listen, go around again
+                PromiseState state = promise.getState();
+
+                if (PromiseState.FULFILLED == state) {
+                    this.value = promise.thenSync();
+                    continue;
+                }
+
+                if (PromiseState.REJECTED == state) {
+                    this.exception = promise.exceptSync();
+                    continue;
+                }
+
+                // the listener may run before this returns, the drain loop will pick it up, with the new value
+                this.pending = true;
+                ListenablePromise.addListener((Promise<T>) promise, this);
+                return;
+            }
+        }
+
+        @Override
+        public void onComplete(T value, Throwable exception) {
+            this.value = value;
+            this.exception = exception;
+            this.pending = false;
+            this.drain();
+        }
+
+        private void settle(R result, Throwable exception) {
+            try {
+                if (null != exception) {
+                    this.deferred.reject(exception);
+                } else {
+                    this.deferred.fulfill(result);
+                }
+            } catch (MutatedStateException e) {
+                // we may have been cancelled concurrently
+                if (!this.getPromise().isCancelled()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * @see #whileAsync(BooleanSupplier, Supplier)
+     */
+    private static final class WhileLoop extends Loop<Object, Void> {
+        private final BooleanSupplier condition;
+        private final Supplier<? extends Promise<?>> body;
+
+        private WhileLoop(Deferred<Void> deferred, BooleanSupplier condition, Supplier<? extends Promise<?>> body) {
+            super(deferred, null);
+            this.condition = condition;
+            this.body = body;
+        }
+
+        @Override
+        boolean isDone(Object value) {
+            return !this.condition.getAsBoolean();
+        }
+
+        @Override
+        Promise<?> step(Object value) {
+            return this.body.get();
+        }
+
+        @Override
+        Void getResult(Object value) {
+            return null;
+        }
+    }
+
+    /**
+     * @see #iterate(Object, Function, Predicate)
+     */
+    private static final class IterateLoop<T> extends Loop<T, T> {
+        private final Function<? super T, ? extends Promise<? extends T>> step;
+        private final Predicate<? super T> until;
+
+        private IterateLoop(Deferred<T> deferred, T seed, Function<? super T, ? extends Promise<? extends T>> step, Predicate<? super T> until) {
+            super(deferred, seed);
+            this.step = step;
+            this.until = until;
+        }
+
+        @Override
+        boolean isDone(T value) {
+            return this.until.test(value);
+        }
+
+        @Override
+        Promise<? extends T> step(T value) {
+            return this.step.apply(value);
+        }
+
+        @Override
+        T getResult(T value) {
+            return value;
+        }
+    }
+
+    /**
+     * @see #repeat(int, IntFunction)
+     */
+    private static final class RepeatLoop extends Loop<Object, Void> {
+        private final int count;
+        private final IntFunction<? extends Promise<?>> body;
+
+        /**
+         * Only accessed by the thread draining.
+         */
+        private int index;
+
+        private RepeatLoop(Deferred<Void> deferred, int count, IntFunction<? extends Promise<?>> body) {
+            super(deferred, null);
+            this.count = count;
+            this.body = body;
+            this.index = 0;
+        }
+
+        @Override
+        boolean isDone(Object value) {
+            return this.index >= this.count;
+        }
+
+        @Override
+        Promise<?> step(Object value) {
+            return this.body.apply(this.index++);
+        }
+
+        @Override
+        Void getResult(Object value) {
+            return null;
+        }
     }
 
     /**
@@ -386,39 +1163,67 @@ public abstract class PromiseApi implements PromiseFactory {
     }
 
     /**
-     * Convert a promise to a {@link CompletableFuture}. The reverse of this conversion can be performed by instancing
-     * a new {@link me.joeycumines.javapromises.v1.PromiseStage}.
+     * Convert a promise to a {@link CompletableFuture}. The reverse of this conversion can be performed using
+     * {@link #fromCompletionStage(CompletionStage)}.
+     * <p>
+     * A promise that is already a {@link CompletableFuture}, such as {@link me.joeycumines.javapromises.v1.PromiseFuture},
+     * is returned as is. Otherwise the future is completed by a {@link CompletionListener}, rather than a chained
+     * promise, see {@link ListenablePromise#addListener(Promise, CompletionListener)}.
      *
      * @param promise The promise to convert.
      * @param <T>     The type of the returned {@link CompletableFuture}.
-     * @return A new {@link CompletableFuture} that will resolve with the same state as the input promise.
+     * @return A {@link CompletableFuture} that will resolve with the same state as the input promise.
      * @throws NullPointerException If the input promise is null.
      */
+    @SuppressWarnings("unchecked")
     public <T> CompletableFuture<T> toCompletableFuture(Promise<? extends T> promise) throws NullPointerException {
         Objects.requireNonNull(promise);
 
-        CompletableFuture<T> future = new CompletableFuture<>();
-        PromiseState state = promise.getState();
-
-        if (PromiseState.FULFILLED == state) {
-            future.complete(promise.thenSync());
-        } else if (PromiseState.REJECTED == state) {
-            future.completeExceptionally(promise.exceptSync());
-        } else {
-            promise.always((r, e) -> {
-                if (null != e) {
-                    future.completeExceptionally(e);
-                    return null;
-                }
-
-                future.complete(r);
-                return null;
-            });
+        if (promise instanceof CompletableFuture) {
+            return (CompletableFuture<T>) promise;
         }
 
+        ListenerFuture<T> future = new ListenerFuture<>();
+        ListenablePromise.addListener(promise, future);
+
         return future;
     }
 
+    /**
+     * Convert a {@link CompletionStage} to a promise, the reverse of {@link #toCompletableFuture(Promise)}.
+     * <p>
+     * A stage that is already a promise, such as {@link me.joeycumines.javapromises.v1.PromiseFuture}, is returned as
+     * is, even if it was not created by this factory. Otherwise the promise is created using {@link #defer()}, and is
+     * resolved by the stage, with any {@link CompletionException} unwrapped.
+     *
+     * @param stage The stage to convert.
+     * @param <T>   The type of the returned promise.
+     * @return A promise that will resolve with the same state as the input stage.
+     * @throws NullPointerException If the input stage is null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Promise<T> fromCompletionStage(CompletionStage<? extends T> stage) throws NullPointerException {
+        Objects.requireNonNull(stage);
+
+        if (stage instanceof Promise) {
+            return (Promise<T>) stage;
+        }
+
+        Deferred<T> deferred = this.defer();
+
+        stage.whenComplete((value, exception) -> {
+            if (null != exception) {
+                deferred.reject(exception instanceof CompletionException && null != exception.getCause() ?
+                        exception.getCause() : exception);
+                return;
+            }
+
+            deferred.fulfill(value);
+        });
+
+        return deferred.getPromise();
+    }
+
     /**
      * Create a new promise that will fulfill or reject, if given a promise and based on it's state, otherwise simply
      * fulfilling with the value given, provided it can be cast to the given type.
@@ -459,7 +1264,7 @@ public abstract class PromiseApi implements PromiseFactory {
         }
 
         // resolve the promise if we can, could throw a CircularResolutionException
-        value = this.resolvePromise((Promise<?>) value);
+        value = flatten((Promise<?>) value);
 
         // if we didn't resolve a promise, we are done, try the cast, and return a fulfilled promise with that value
         if (!(null != value && value instanceof Promise)) {
@@ -473,9 +1278,12 @@ public abstract class PromiseApi implements PromiseFactory {
             return this.reject(promise.exceptSync());
         }
 
-        // the state here should ALWAYS be PENDING, promises fulfilled with other promises + all others are handled
+        // the state here should ALWAYS be PENDING, promises fulfilled with other promises + all others are handled,
+        // we continue from this promise once it resolves, rather than starting again
+        Resolution<T> resolution = new Resolution<>(this.defer(), type);
+        resolution.listen(promise);
 
-        return promise.always((r, e) -> this.resolve(promise, type));
+        return resolution.deferred.getPromise();
     }
 
     /**
@@ -492,8 +1300,14 @@ public abstract class PromiseApi implements PromiseFactory {
         Objects.requireNonNull(inputIterable);
         Objects.requireNonNull(type);
 
-        ArrayList<Promise<T>> outputList = new ArrayList<>();
-        inputIterable.forEach((input) -> outputList.add(this.resolve(input, type)));
+        ArrayList<Promise<T>> outputList = inputIterable instanceof Collection ?
+                new ArrayList<>(((Collection<?>) inputIterable).size()) :
+                new ArrayList<>();
+
+        for (Object input : inputIterable) {
+            outputList.add(this.resolve(input, type));
+        }
+
         return outputList;
     }
 
@@ -501,110 +1315,144 @@ public abstract class PromiseApi implements PromiseFactory {
      * Find the deepest value possible, in a chain of promises. This method is synchronous, and will return any
      * unresolved promise, and will return {@code REJECTED} promises (over the exception itself), if that is the
      * deepest possible value.
+     * <p>
+     * The chain is walked once, using Brent's cycle-finding algorithm, so each promise in the chain is only visited
+     * once (until a cycle is detected), rather than three times, as it would be by a tortoise and hare.
      *
      * @param promise The starting promise.
      * @return The resolved value. If the value is a promise, we were waiting or rejected.
      * @throws CircularResolutionException If the input promise has circular references (throws on input promise).
      */
-    private Object resolvePromise(Promise<?> promise) throws CircularResolutionException {
-        Function<Promise<?>, Object> cannotContinue = (endPromise) -> {
-            // return value will be a promise, if it was PENDING or REJECTED that we stopped on
-            if (PromiseState.FULFILLED != endPromise.getState()) {
-                return endPromise;
-            }
+    private static Object flatten(Promise<?> promise) throws CircularResolutionException {
+        Promise<?> current = promise;
+        Promise<?> checkpoint = promise;
+        int power = 1;
+        int length = 0;
 
-            Object value = endPromise.thenSync();
-
-            // if we resolved with ourselves, this was an old edge case, but just in case
-            if (value == endPromise) {
-                throw new CircularResolutionException(promise);
+        while (true) {
+            // the value will be a promise, if it was PENDING or REJECTED that we stopped on
+            if (PromiseState.FULFILLED != current.getState()) {
+                return current;
             }
 
-            // resolve to the value of the end promise; it should NEVER be a promise
-            return value;
-        };
-
-        // Floyd's cycle-finding algorithm - http://stackoverflow.com/a/2663147
+            Object value = current.thenSync();
 
-        Promise<?> tortoise = promise;
-        Promise<?> hare = promise;
+            // resolve to the value of the end promise; it is NEVER a promise
+            if (!(null != value && value instanceof Promise)) {
+                return value;
+            }
 
-        while (true) {
-            Promise<?> step = null;
+            current = (Promise<?>) value;
 
-            // one step for tortoise
-            step = this.next(tortoise);
-            if (step == tortoise) {
-                // exit: no next steps were found, we stayed on the same step
-                return cannotContinue.apply(step);
+            // if we ever get back to the checkpoint we have a circular reference
+            if (current == checkpoint) {
+                throw new CircularResolutionException(promise);
             }
-            tortoise = step;
 
-            // two steps for hare
-            step = this.next(hare);
-            if (step == hare) {
-                // exit: no next steps were found, we stayed on the same step
-                return cannotContinue.apply(step);
-            }
-            hare = step;
-            step = this.next(hare);
-            if (step == hare) {
-                // exit: no next steps were found, we stayed on the same step
-                return cannotContinue.apply(step);
+            // move the checkpoint forward, doubling the distance each time, so it will eventually be within any cycle
+            if (++length == power) {
+                checkpoint = current;
+                power <<= 1;
+                length = 0;
             }
-            hare = step;
+        }
+    }
 
-            // if they ever meet we have a circular reference
-            if (tortoise == hare) {
-                throw new CircularResolutionException(promise);
+    /**
+     * A future that is also the listener that completes it, used by {@link #toCompletableFuture(Promise)}.
+     */
+    private static final class ListenerFuture<T> extends CompletableFuture<T> implements CompletionListener<T> {
+        @Override
+        public void onComplete(T value, Throwable exception) {
+            if (null != exception) {
+                this.completeExceptionally(exception);
+                return;
             }
+
+            this.complete(value);
         }
     }
 
     /**
-     * Get the next promise in a chain.
+     * The state of a single call to {@link #resolve(Object, Class)}, that stopped on a {@code PENDING} promise.
      * <p>
-     * If there is no next promise, or it cannot be reached yet, then the input promise will be returned.
-     *
-     * @param promise Input promise, must not be null.
-     * @return The next promise, resolved from the input, or the same input promise if there was no next.
-     * @throws NullPointerException If input promise is null.
+     * Each time the promise it is waiting on resolves, it continues flattening the chain from that promise, rather
+     * than from the start, until it either reaches a value, or another {@code PENDING} promise to wait on.
      */
-    private Promise<?> next(Promise<?> promise) throws NullPointerException {
-        Objects.requireNonNull(promise);
+    private static final class Resolution<T> implements CompletionListener<Object> {
+        private final Deferred<T> deferred;
+        private final Class<? extends T> type;
 
-        if (PromiseState.FULFILLED != promise.getState()) {
-            return promise;
+        private Resolution(Deferred<T> deferred, Class<? extends T> type) {
+            this.deferred = deferred;
+            this.type = type;
         }
 
-        Object value = promise.thenSync();
-
-        if (!(null != value && value instanceof Promise)) {
-            return promise;
+        @SuppressWarnings("unchecked")
+        private void listen(Promise<?> promise) {
+            ListenablePromise.addListener((Promise<Object>) promise, this);
         }
 
-        return (Promise<?>) value;
+        @Override
+        public void onComplete(Object value, Throwable exception) {
+            if (null != exception) {
+                this.deferred.reject(exception);
+                return;
+            }
+
+            T result;
+
+            try {
+                if (null != value && value instanceof Promise) {
+                    value = flatten((Promise<?>) value);
+
+                    if (null != value && value instanceof Promise) {
+                        Promise<?> promise = (Promise<?>) value;
+
+                        if (PromiseState.REJECTED == promise.getState()) {
+                            this.deferred.reject(promise.exceptSync());
+                            return;
+                        }
+
+                        this.listen(promise);
+                        return;
+                    }
+                }
+
+                result = this.type.cast(value);
+            } catch (RuntimeException e) {
+                // circular references, and failed casts
+                this.deferred.reject(e);
+                return;
+            }
+
+            this.deferred.fulfill(result);
+        }
     }
 
     /**
-     * @see #each(Iterable, Function) for details on what this is implementing.
+     * Prepend promise to promises, the varargs form of the combinators.
      */
-    private <T, U> Promise<List<U>> eachRecursive(List<T> inputList,
-                                                  Function<? super T, ? extends Promise<? extends U>> action,
-                                                  AtomicInteger index,
-                                                  List<Promise<U>> outputList) {
-        if (index.get() >= inputList.size()) {
-            List<U> resultList = new ArrayList<>();
-            outputList.forEach((promise) -> resultList.add(promise.thenSync()));
-            return this.fulfill(resultList);
-        }
-
-        T value = inputList.get(index.getAndIncrement());
+    @SafeVarargs
+    private static <T> List<Promise<? extends T>> toList(Promise<? extends T> promise, Promise<? extends T>... promises) {
+        Promise<? extends T>[] promiseArray = Arrays.copyOf(promises, promises.length + 1);
+        System.arraycopy(promiseArray, 0, promiseArray, 1, promises.length);
+        promiseArray[0] = promise;
+        return Arrays.asList(promiseArray);
+    }
 
-        Promise<U> promise = this.attempt(() -> action.apply(value));
+    /**
+     * Collections can be iterated more than once, without copying them, other iterables are copied.
+     */
+    private static <T> Collection<? extends T> toCollection(Iterable<? extends T> iterable) {
+        Objects.requireNonNull(iterable);
 
-        outputList.add(promise);
+        if (iterable instanceof Collection) {
+            return (Collection<? extends T>) iterable;
+        }
 
-        return promise.then((r) -> this.eachRecursive(inputList, action, index, outputList));
+        List<T> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
     }
 }
@@ -1,5 +1,6 @@
 package me.joeycumines.javapromises.core;
 
+import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -37,6 +38,42 @@ public interface PromiseFactory {
      */
     <T> Promise<T> create(BiConsumer<Consumer<? super T>, Consumer<Throwable>> action);
 
+    /**
+     * Creates a promise, and executes the action <b>synchronously</b>, on the calling thread, before returning, like
+     * the executor of a JavaScript {@code new Promise(executor)}.
+     * <p>
+     * This is intended for actions that only hand the fulfill and reject parameters off to an API that is already
+     * asynchronous (such as a callback based client), where {@link #create(BiConsumer)} would cost a thread handoff.
+     * The action should not block.
+     * <p>
+     * Otherwise, the behaviour is the same as {@link #create(BiConsumer)}. Any {@code Throwable} thrown within the
+     * action will reject the promise, unless it was already resolved, in which case it is ignored.
+     * <p>
+     * The default implementation resolves a promise from {@link #defer()}.
+     *
+     * @param action The task to perform synchronously.
+     * @param <T>    The type the promise will resolve with.
+     * @return A new promise, which will already be resolved if the action resolved it.
+     * @throws NullPointerException If the action is null.
+     */
+    default <T> Promise<T> createSync(BiConsumer<Consumer<? super T>, Consumer<Throwable>> action) {
+        Objects.requireNonNull(action);
+
+        Deferred<T> deferred = this.defer();
+
+        try {
+            action.accept(deferred::fulfill, deferred::reject);
+        } catch (Throwable e) {
+            try {
+                deferred.reject(e);
+            } catch (MutatedStateException ignored) {
+                // already resolved, the exception is ignored
+            }
+        }
+
+        return deferred.getPromise();
+    }
+
     /**
      * Create a new {@code REJECTED} promise, with a provided reason for rejection.
      * <p>
@@ -81,4 +118,18 @@ public interface PromiseFactory {
      * @return A new promise.
      */
     <T> Promise<T> wrap(Promise<? extends T> promise);
+
+    /**
+     * Create a new {@code PENDING} promise, that can be resolved by any thread, after the fact.
+     * <p>
+     * Implementations should override this, the default implementation uses {@link BlockingPromise}, which may block
+     * on resolution, until the action passed to {@link #create(BiConsumer)} has been run, and so does not meet the
+     * non-blocking requirement of {@link Deferred}.
+     *
+     * @param <T> The type the promise will resolve with.
+     * @return A new deferred promise.
+     */
+    default <T> Deferred<T> defer() {
+        return new BlockingPromise<>(this);
+    }
 }
@@ -0,0 +1,28 @@
+package me.joeycumines.javapromises.v1;
+
+/**
+ * Controls how the callbacks of chained promises ({@code then}, {@code except}, and {@code always}) are executed,
+ * relative to the resolution of the promise they were chained from. Chained promises inherit the policy.
+ * <p>
+ * Anything other than {@link #ASYNC} relaxes the guarantee, made by {@link me.joeycumines.javapromises.core.Promise},
+ * that callbacks are never run inline. It is intended for cheap callbacks, where the cost of handing the callback off
+ * to another thread would dominate the cost of the callback itself.
+ */
+public enum ExecutionPolicy {
+    /**
+     * Always execute callbacks asynchronously, using the runner or executor. This is the default.
+     */
+    ASYNC,
+
+    /**
+     * Execute callbacks inline, on the thread chaining them, if the promise was already resolved at the time, otherwise
+     * execute them asynchronously, as per {@link #ASYNC}.
+     */
+    INLINE_WHEN_RESOLVED,
+
+    /**
+     * Always execute callbacks inline, on the thread that resolves the promise, or on the thread chaining them, if the
+     * promise was already resolved at the time.
+     */
+    INLINE_ON_RESOLVE
+}
@@ -19,6 +19,10 @@ public class ExecutorRunner implements PromiseRunner {
         this.executor = executor;
     }
 
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
     /**
      * Create a new global (singleton, though you can instance others like it manually) executor runner using a new
      * cached thread pool. Due to the various caveats surrounding that particular executor it is not intended for use in
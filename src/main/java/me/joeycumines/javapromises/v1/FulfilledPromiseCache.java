@@ -0,0 +1,99 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.Promise;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * A lazily populated cache of {@code FULFILLED} promises, for common constant values, used by the factories so that
+ * fulfilling with a constant does not allocate anything, after the first time.
+ * <p>
+ * The cached values are {@code null}, {@link Boolean#TRUE}, {@link Boolean#FALSE}, {@link Collections#emptyList()},
+ * and the {@link Integer} instances cached by {@link Integer#valueOf(int)}. Values are matched by identity, so a
+ * promise retrieved from this cache will always resolve with exactly the value it was requested with.
+ * <p>
+ * Since the cached promises are shared, they must be resolved at creation, and never hold any other state.
+ */
+final class FulfilledPromiseCache {
+    private static final int INTEGER_LOW = -128;
+    private static final int INTEGER_HIGH = 127;
+
+    private static final int NULL_INDEX = 0;
+    private static final int TRUE_INDEX = 1;
+    private static final int FALSE_INDEX = 2;
+    private static final int EMPTY_LIST_INDEX = 3;
+    private static final int INTEGER_OFFSET = 4 - INTEGER_LOW;
+
+    private static final int SIZE = INTEGER_OFFSET + INTEGER_HIGH + 1;
+
+    private final AtomicReferenceArray<Promise<?>> cache;
+    private final Function<Object, ? extends Promise<?>> factory;
+
+    /**
+     * @param factory Creates a new {@code FULFILLED} promise, with the value provided, called on a cache miss.
+     */
+    FulfilledPromiseCache(Function<Object, ? extends Promise<?>> factory) {
+        Objects.requireNonNull(factory);
+
+        this.cache = new AtomicReferenceArray<>(SIZE);
+        this.factory = factory;
+    }
+
+    /**
+     * @param value The value to get a {@code FULFILLED} promise for.
+     * @param <T>   The type of the promise.
+     * @return A shared promise fulfilled with value, or null if the value is not cacheable.
+     */
+    @SuppressWarnings("unchecked")
+    <T> Promise<T> get(T value) {
+        int index = indexOf(value);
+
+        if (index < 0) {
+            return null;
+        }
+
+        Promise<?> promise = this.cache.get(index);
+
+        if (null == promise) {
+            promise = this.factory.apply(value);
+
+            // racing to populate is harmless, but everyone should agree on the winner
+            if (!this.cache.compareAndSet(index, null, promise)) {
+                promise = this.cache.get(index);
+            }
+        }
+
+        return (Promise<T>) promise;
+    }
+
+    private static int indexOf(Object value) {
+        if (null == value) {
+            return NULL_INDEX;
+        }
+
+        if (Boolean.TRUE == value) {
+            return TRUE_INDEX;
+        }
+
+        if (Boolean.FALSE == value) {
+            return FALSE_INDEX;
+        }
+
+        if (Collections.emptyList() == value) {
+            return EMPTY_LIST_INDEX;
+        }
+
+        if (value instanceof Integer) {
+            int i = (Integer) value;
+
+            if (i >= INTEGER_LOW && i <= INTEGER_HIGH && Integer.valueOf(i) == value) {
+                return INTEGER_OFFSET + i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,361 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Create primitive promises, {@link IntPromise}, {@link LongPromise}, and {@link DoublePromise}, which avoid boxing
+ * values while chaining.
+ * <p>
+ * Each primitive factory is backed by a {@link PromiseFactory}, used when converting back to {@link Promise}, and an
+ * {@link Executor}, used to run chained callbacks. Use {@link PromiseRunnableFactory#getPrimitiveFactory()} or
+ * {@link PromiseStageFactory#getPrimitiveFactory()} to get one that behaves like the corresponding factory.
+ */
+public class PrimitivePromiseFactory {
+    private final PromiseFactory promiseFactory;
+    private final Executor executor;
+    private final ExecutionPolicy policy;
+
+    /**
+     * @param promiseFactory The factory to create promises with, when converting to {@link Promise}.
+     * @param executor       The executor to run callbacks with.
+     * @param policy         How chained callbacks will be run.
+     */
+    public PrimitivePromiseFactory(PromiseFactory promiseFactory, Executor executor, ExecutionPolicy policy) {
+        Objects.requireNonNull(promiseFactory);
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(policy);
+
+        this.promiseFactory = promiseFactory;
+        this.executor = executor;
+        this.policy = policy;
+    }
+
+    public PromiseFactory getPromiseFactory() {
+        return this.promiseFactory;
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    public ExecutionPolicy getPolicy() {
+        return this.policy;
+    }
+
+    public IntPromise fulfillInt(int value) {
+        PromiseInt promise = new PromiseInt(this);
+        promise.tryFulfill(value);
+        return promise;
+    }
+
+    public LongPromise fulfillLong(long value) {
+        PromiseLong promise = new PromiseLong(this);
+        promise.tryFulfill(value);
+        return promise;
+    }
+
+    public DoublePromise fulfillDouble(double value) {
+        PromiseDouble promise = new PromiseDouble(this);
+        promise.tryFulfill(value);
+        return promise;
+    }
+
+    /**
+     * @param reason The value this will reject with.
+     * @return A new {@code REJECTED} promise.
+     * @throws NullPointerException If the reason is null.
+     */
+    public IntPromise rejectInt(Throwable reason) {
+        PromiseInt promise = new PromiseInt(this);
+        promise.tryReject(reason);
+        return promise;
+    }
+
+    /**
+     * @see #rejectInt(Throwable)
+     */
+    public LongPromise rejectLong(Throwable reason) {
+        PromiseLong promise = new PromiseLong(this);
+        promise.tryReject(reason);
+        return promise;
+    }
+
+    /**
+     * @see #rejectInt(Throwable)
+     */
+    public DoublePromise rejectDouble(Throwable reason) {
+        PromiseDouble promise = new PromiseDouble(this);
+        promise.tryReject(reason);
+        return promise;
+    }
+
+    /**
+     * Run a supplier asynchronously, using the executor, fulfilling with the result, or rejecting if it throws.
+     *
+     * @param supplier The value supplier.
+     * @return A new promise.
+     * @throws NullPointerException If the supplier is null.
+     */
+    public IntPromise supplyInt(IntSupplier supplier) {
+        Objects.requireNonNull(supplier);
+        PromiseInt promise = new PromiseInt(this);
+        this.executor.execute(() -> {
+            try {
+                promise.tryFulfill(supplier.getAsInt());
+            } catch (Throwable e) {
+                promise.tryReject(e);
+            }
+        });
+        return promise;
+    }
+
+    /**
+     * @see #supplyInt(IntSupplier)
+     */
+    public LongPromise supplyLong(LongSupplier supplier) {
+        Objects.requireNonNull(supplier);
+        PromiseLong promise = new PromiseLong(this);
+        this.executor.execute(() -> {
+            try {
+                promise.tryFulfill(supplier.getAsLong());
+            } catch (Throwable e) {
+                promise.tryReject(e);
+            }
+        });
+        return promise;
+    }
+
+    /**
+     * @see #supplyInt(IntSupplier)
+     */
+    public DoublePromise supplyDouble(DoubleSupplier supplier) {
+        Objects.requireNonNull(supplier);
+        PromiseDouble promise = new PromiseDouble(this);
+        this.executor.execute(() -> {
+            try {
+                promise.tryFulfill(supplier.getAsDouble());
+            } catch (Throwable e) {
+                promise.tryReject(e);
+            }
+        });
+        return promise;
+    }
+
+    /**
+     * Convert a promise to an {@link IntPromise}, that will resolve in the same way. A {@code null} value will cause
+     * the returned promise to reject with a {@link NullPointerException}.
+     *
+     * @param promise The promise to convert.
+     * @return A new promise.
+     * @throws NullPointerException If the promise is null.
+     */
+    public IntPromise toIntPromise(Promise<? extends Number> promise) {
+        Objects.requireNonNull(promise);
+        PromiseInt result = new PromiseInt(this);
+        ListenablePromise.addListener(promise, (r, e) -> {
+            if (null != e) {
+                result.tryReject(e);
+            } else if (null == r) {
+                result.tryReject(new NullPointerException("the promise fulfilled with null"));
+            } else {
+                result.tryFulfill(r.intValue());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @see #toIntPromise(Promise)
+     */
+    public LongPromise toLongPromise(Promise<? extends Number> promise) {
+        Objects.requireNonNull(promise);
+        PromiseLong result = new PromiseLong(this);
+        ListenablePromise.addListener(promise, (r, e) -> {
+            if (null != e) {
+                result.tryReject(e);
+            } else if (null == r) {
+                result.tryReject(new NullPointerException("the promise fulfilled with null"));
+            } else {
+                result.tryFulfill(r.longValue());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @see #toIntPromise(Promise)
+     */
+    public DoublePromise toDoublePromise(Promise<? extends Number> promise) {
+        Objects.requireNonNull(promise);
+        PromiseDouble result = new PromiseDouble(this);
+        ListenablePromise.addListener(promise, (r, e) -> {
+            if (null != e) {
+                result.tryReject(e);
+            } else if (null == r) {
+                result.tryReject(new NullPointerException("the promise fulfilled with null"));
+            } else {
+                result.tryFulfill(r.doubleValue());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Like {@link PromiseApi#all(Iterable)}, but the values are collected into an array, without boxing. The returned
+     * promise will reject with the same reason as the first input promise to reject.
+     *
+     * @param promiseIterable The promises to resolve. Must not be null, and must contain no null values.
+     * @return A promise that will resolve successfully <b>only</b> if all inputs do, with their values in order.
+     * @throws NullPointerException     If the promiseIterable parameter, or any of it's values, are null.
+     * @throws IllegalArgumentException If the iterable was empty.
+     */
+    public Promise<int[]> allInt(Iterable<? extends IntPromise> promiseIterable) throws NullPointerException, IllegalArgumentException {
+        List<IntPromise> promiseList = toList(promiseIterable);
+        int[] values = new int[promiseList.size()];
+        Aggregate<int[]> aggregate = new Aggregate<>(this.promiseFactory, values, promiseList.size());
+
+        for (int x = 0; x < promiseList.size(); x++) {
+            int index = x;
+            IntPromise promise = promiseList.get(x);
+            this.whenResolved(promise, promise.getState(), () -> {
+                if (PromiseState.FULFILLED == promise.getState()) {
+                    values[index] = promise.thenSync();
+                    aggregate.fulfilled();
+                } else {
+                    aggregate.rejected(promise.exceptSync());
+                }
+            });
+        }
+
+        return aggregate.getPromise();
+    }
+
+    /**
+     * @see #allInt(Iterable)
+     */
+    public Promise<long[]> allLong(Iterable<? extends LongPromise> promiseIterable) throws NullPointerException, IllegalArgumentException {
+        List<LongPromise> promiseList = toList(promiseIterable);
+        long[] values = new long[promiseList.size()];
+        Aggregate<long[]> aggregate = new Aggregate<>(this.promiseFactory, values, promiseList.size());
+
+        for (int x = 0; x < promiseList.size(); x++) {
+            int index = x;
+            LongPromise promise = promiseList.get(x);
+            this.whenResolved(promise, promise.getState(), () -> {
+                if (PromiseState.FULFILLED == promise.getState()) {
+                    values[index] = promise.thenSync();
+                    aggregate.fulfilled();
+                } else {
+                    aggregate.rejected(promise.exceptSync());
+                }
+            });
+        }
+
+        return aggregate.getPromise();
+    }
+
+    /**
+     * @see #allInt(Iterable)
+     */
+    public Promise<double[]> allDouble(Iterable<? extends DoublePromise> promiseIterable) throws NullPointerException, IllegalArgumentException {
+        List<DoublePromise> promiseList = toList(promiseIterable);
+        double[] values = new double[promiseList.size()];
+        Aggregate<double[]> aggregate = new Aggregate<>(this.promiseFactory, values, promiseList.size());
+
+        for (int x = 0; x < promiseList.size(); x++) {
+            int index = x;
+            DoublePromise promise = promiseList.get(x);
+            this.whenResolved(promise, promise.getState(), () -> {
+                if (PromiseState.FULFILLED == promise.getState()) {
+                    values[index] = promise.thenSync();
+                    aggregate.fulfilled();
+                } else {
+                    aggregate.rejected(promise.exceptSync());
+                }
+            });
+        }
+
+        return aggregate.getPromise();
+    }
+
+    /**
+     * Run an action once a primitive promise resolves, directly if it is one of ours, or already resolved.
+     */
+    private void whenResolved(Object promise, PromiseState state, Runnable action) {
+        if (PromiseState.PENDING != state) {
+            action.run();
+        } else if (promise instanceof PromisePrimitive) {
+            ((PromisePrimitive) promise).whenResolved(action);
+        } else if (promise instanceof IntPromise) {
+            ((IntPromise) promise).thenApply((v) -> null).always((r, e) -> this.run(action));
+        } else if (promise instanceof LongPromise) {
+            ((LongPromise) promise).thenApply((v) -> null).always((r, e) -> this.run(action));
+        } else {
+            ((DoublePromise) promise).thenApply((v) -> null).always((r, e) -> this.run(action));
+        }
+    }
+
+    private Promise<Object> run(Runnable action) {
+        action.run();
+        return null;
+    }
+
+    private static <T> List<T> toList(Iterable<? extends T> promiseIterable) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(promiseIterable);
+
+        List<T> promiseList = new ArrayList<>();
+
+        for (T promise : promiseIterable) {
+            Objects.requireNonNull(promise);
+            promiseList.add(promise);
+        }
+
+        if (promiseList.isEmpty()) {
+            throw new IllegalArgumentException("the provided iterable cannot be empty");
+        }
+
+        return promiseList;
+    }
+
+    /**
+     * Tracks the resolution of an all operation, resolving the output promise exactly once.
+     */
+    private static final class Aggregate<T> {
+        private final Deferred<T> blocker;
+        private final T values;
+        private final AtomicInteger remaining;
+
+        private Aggregate(PromiseFactory factory, T values, int size) {
+            this.blocker = factory.defer();
+            this.values = values;
+            this.remaining = new AtomicInteger(size);
+        }
+
+        private Promise<T> getPromise() {
+            return this.blocker.getPromise();
+        }
+
+        private void fulfilled() {
+            // the decrement publishes the write to the values array, to whoever finishes last
+            if (0 == this.remaining.decrementAndGet()) {
+                this.blocker.fulfill(this.values);
+            }
+        }
+
+        private void rejected(Throwable exception) {
+            // only the first rejection counts
+            if (this.remaining.getAndSet(-1) > 0) {
+                this.blocker.reject(exception);
+            }
+        }
+    }
+}
@@ -3,76 +3,125 @@ package me.joeycumines.javapromises.v1;
 import me.joeycumines.javapromises.core.*;
 
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A simple thread-safe {@link Promise} implementation sans then, except, and always.
+ * <p>
+ * The state, value, and exception are published together, as a single result, using compare-and-set. This means that
+ * reading the state (or value) is a single volatile read, and resolving is a single atomic operation, neither of which
+ * require any locking.
+ * <p>
+ * Blocking (via {@link #sync()}, and the timed and interruptible variants) spins briefly, then parks the calling
+ * thread on a list of waiters, which is released directly by whichever thread resolves this promise. Any
+ * {@link CompletionListener} are kept on the same list, and are run (not unparked) on release.
+ * <p>
+ * Resolving with another (pending) {@link PromiseBase} links this to the root of that promise, rather than chaining
+ * from it. The waiters of this are moved to the root, and anything that followed this is re-pointed to the root, so
+ * that a recursive chain of promises, each resolved with the next, stays a constant size, no matter how long it runs.
  */
-public abstract class PromiseBase<T> implements Promise<T> {
+public abstract class PromiseBase<T> implements ListenablePromise<T> {
     /**
-     * Use this as a lock against which you can synchronize the state.
+     * Stored as the result if this promise was fulfilled with {@code null}, as a {@code null} result means PENDING.
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    private static final AtomicReferenceFieldUpdater<PromiseBase, Object> RESULT =
+            AtomicReferenceFieldUpdater.newUpdater(PromiseBase.class, Object.class, "result");
+
+    private static final AtomicReferenceFieldUpdater<PromiseBase, Waiter> WAITERS =
+            AtomicReferenceFieldUpdater.newUpdater(PromiseBase.class, Waiter.class, "waiters");
+
+    private static final AtomicReferenceFieldUpdater<Waiter, CompletionListener> LISTENER =
+            AtomicReferenceFieldUpdater.newUpdater(Waiter.class, CompletionListener.class, "listener");
+
+    /**
+     * Stored as the waiters once they have been released, waiters must not be added after this point.
+     */
+    private static final Waiter RELEASED = new Waiter(null, null);
+
+    /**
+     * The number of times to check the result before parking, it is only worth spinning if we have multiple cores.
+     */
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 6 : 0;
+
+    /**
+     * Use this as a lock against which you can synchronize any additional state, in an extending class.
      * <p>
      * This used to be another object instanced by the constructor, but it has been changed to this, for now, since
-     * there is not any real need for a separate lock object.
+     * there is not any real need for a separate lock object. The state of this promise is not guarded by this lock.
      */
     protected final Object lock;
 
-    private PromiseState state;
-    private volatile T value;
-    private volatile Throwable exception;
+    /**
+     * The result of this promise, {@code null} while {@code PENDING}, otherwise either a {@link Rejection}, the
+     * {@link #NULL_VALUE} sentinel, or the fulfilled value. Can only be set (to something non-null) once, except for a
+     * {@link Link}, which may later be replaced by the result of the promise it links to.
+     */
+    private volatile Object result;
+
+    /**
+     * A stack of threads blocked waiting for this promise to resolve, and listeners, or {@link #RELEASED}.
+     */
+    private volatile Waiter waiters;
 
     public PromiseBase() {
         this.lock = this;
-        this.state = PromiseState.PENDING;
-        this.value = null;
-        this.exception = null;
+        this.result = null;
+        this.waiters = null;
+    }
+
+    /**
+     * Create a promise that is already resolved, which is cheaper than resolving it after the fact, since nothing can
+     * be waiting on it yet.
+     *
+     * @param value     The value to fulfill with, ignored if exception is not null.
+     * @param exception The exception to reject with, or null to fulfill.
+     */
+    PromiseBase(T value, Throwable exception) {
+        this.lock = this;
+        this.result = null != exception ? new Rejection(exception) : (null == value ? NULL_VALUE : value);
+        this.waiters = RELEASED;
     }
 
     @Override
     public PromiseState getState() {
-        if (PromiseState.PENDING != this.state) {
-            return this.state;
-        }
-
-        synchronized (this.lock) {
-            return this.state;
-        }
+        return stateOf(this.outcome());
     }
 
+    @SuppressWarnings("unchecked")
     protected T getValue() {
-        if (PromiseState.PENDING != this.state) {
-            return this.value;
-        }
+        Object result = this.outcome();
 
-        synchronized (this.lock) {
-            return this.value;
+        if (null == result || NULL_VALUE == result || result instanceof Rejection) {
+            return null;
         }
+
+        return (T) result;
     }
 
     protected Throwable getException() {
-        if (PromiseState.PENDING != this.state) {
-            return this.exception;
-        }
+        Object result = this.outcome();
 
-        synchronized (this.lock) {
-            return this.exception;
+        if (result instanceof Rejection) {
+            return ((Rejection) result).exception;
         }
+
+        return null;
     }
 
     protected PromiseBase<T> reject(Throwable exception) throws MutatedStateException, NullPointerException {
         Objects.requireNonNull(exception);
 
-        if (PromiseState.PENDING != this.state) {
-            throw new MutatedStateException(this, this.state, PromiseState.REJECTED);
+        if (null != this.result || !RESULT.compareAndSet(this, null, new Rejection(exception))) {
+            throw new MutatedStateException(this, this.getState(), PromiseState.REJECTED);
         }
 
-        synchronized (this.lock) {
-            if (PromiseState.PENDING != this.state) {
-                throw new MutatedStateException(this, this.state, PromiseState.REJECTED);
-            }
-
-            this.exception = exception;
-            this.state = PromiseState.REJECTED;
-        }
+        this.release();
 
         return this;
     }
@@ -82,20 +131,39 @@ public abstract class PromiseBase<T> implements Promise<T> {
             throw new SelfResolutionException(this);
         }
 
-        if (PromiseState.PENDING != this.state) {
-            throw new MutatedStateException(this, this.state, PromiseState.FULFILLED);
+        if (!RESULT.compareAndSet(this, null, null == value ? NULL_VALUE : value)) {
+            throw new MutatedStateException(this, this.getState(), PromiseState.FULFILLED);
         }
 
-        synchronized (this.lock) {
-            if (PromiseState.PENDING != this.state) {
-                throw new MutatedStateException(this, this.state, PromiseState.FULFILLED);
-            }
+        this.release();
 
-            this.value = value;
-            this.state = PromiseState.FULFILLED;
+        return this;
+    }
+
+    /**
+     * Cancel this promise, rejecting it with a {@link CancellationException}, if it is still {@code PENDING}.
+     * <p>
+     * Extending classes should override this to stop any pending work, if possible.
+     *
+     * @return True if this call cancelled this promise.
+     */
+    @Override
+    public boolean cancel() {
+        if (null != this.result || !RESULT.compareAndSet(this, null, new Rejection(new CancellationException()))) {
+            return false;
         }
 
-        return this;
+        this.release();
+
+        return true;
+    }
+
+    /**
+     * @return True if this was resolved with another promise, that this is still linked to, see
+     * {@link #resolve(Promise)}. The state of this is that of the promise it is linked to.
+     */
+    protected boolean isLinked() {
+        return this.result instanceof Link;
     }
 
     /**
@@ -105,12 +173,17 @@ public abstract class PromiseBase<T> implements Promise<T> {
      * Note that this may happen <b>asynchronously</b>, subsequent calls to resolve <b>may fail silently</b>.
      * Take this into consideration <b>especially if exposing this method externally</b>.
      * <p>
-     * Circular references are not checked, but we do take care not to directly resolve this.
+     * If the promise is a {@code PENDING} {@link PromiseBase} then this is linked to it (or rather, the promise it is
+     * itself linked to), and can no longer be resolved (or cancelled) any other way. Otherwise, if the promise is
+     * {@code PENDING}, this will resolve once it does, using a {@link CompletionListener} if it is a
+     * {@link ListenablePromise}.
+     * <p>
+     * Circular references are not checked, but we do take care not to directly resolve this, or link to this.
      *
      * @param promise The promise to resolve.
      * @return This promise.
      * @throws SelfResolutionException If promise is this, or the promise is resolved to this.
-     * @throws MutatedStateException   If this was already resolved, at the time of this call. Not triggered immediately if promise is PENDING.
+     * @throws MutatedStateException   If this was already resolved, at the time of this call. Not triggered immediately if promise is PENDING, and not a {@link PromiseBase}.
      */
     protected PromiseBase<T> resolve(Promise<? extends T> promise) throws SelfResolutionException, MutatedStateException {
         if (null == promise) {
@@ -131,43 +204,131 @@ public abstract class PromiseBase<T> implements Promise<T> {
             return this.fulfill(promise.thenSync());
         }
 
-        promise.always((r, e) -> {
-            this.resolve(promise);
-            return null;
+        if (promise instanceof PromiseBase) {
+            return this.link((PromiseBase<?>) promise);
+        }
+
+        // listenable promises (PromiseFuture) are listened to directly, only foreign promises chain a new promise
+        ListenablePromise.addListener(promise, (r, e) -> {
+            try {
+                this.resolve(promise);
+            } catch (MutatedStateException | SelfResolutionException ignored) {
+                // we may have been cancelled in the meantime, and listeners must not throw
+            }
         });
 
         return this;
     }
 
-    @Override
-    public void sync() {
-        if (PromiseState.PENDING != this.state) {
-            return;
+    /**
+     * Link this to the root of a promise, moving all waiters, which is how this resolves with a pending
+     * {@link PromiseBase}.
+     *
+     * @param promise The promise to link to.
+     * @return This promise.
+     * @throws MutatedStateException If this was already resolved (or linked).
+     */
+    @SuppressWarnings("unchecked")
+    private PromiseBase<T> link(PromiseBase<?> promise) throws MutatedStateException {
+        PromiseBase<?> root = promise.root();
+        Object result = root.result;
+
+        // it may have resolved in the meantime
+        if (result instanceof Rejection) {
+            return this.reject(((Rejection) result).exception);
         }
 
-        synchronized (this.lock) {
-            if (PromiseState.PENDING != this.state) {
-                return;
-            }
+        if (null != result) {
+            return this.fulfill(NULL_VALUE == result ? null : (T) result);
+        }
 
-            // setup a notifyAll
-            this.always((value, exception) -> {
-                synchronized (this.lock) {
-                    this.lock.notifyAll();
-                    return null;
-                }
-            });
+        // circular, we would never resolve anyway
+        if (this == root) {
+            return this;
+        }
 
-            // setup a wait
-            while (PromiseState.PENDING == this.state) {
-                try {
-                    this.lock.wait();
-                } catch (InterruptedException ignored) {
-                }
+        Link link = new Link(this, root);
+
+        if (null != this.result || !RESULT.compareAndSet(this, null, link)) {
+            throw new MutatedStateException(this, this.getState(), PromiseState.PENDING);
+        }
+
+        // nothing can be pushed here after this, they will go to the root instead
+        Waiter waiter = WAITERS.getAndSet(this, RELEASED);
+        boolean followed = false;
+
+        while (null != waiter && RELEASED != waiter) {
+            Waiter next = waiter.next;
+            CompletionListener<?> listener = waiter.listener;
+
+            if (listener instanceof Link) {
+                // promises that were linked to this now link to the root directly
+                ((Link) listener).target = root;
+                followed = true;
             }
+
+            this.move(waiter, root);
+
+            waiter = next;
+        }
+
+        // anything linked to this will keep the root up to date, otherwise we need to track it ourselves, so that
+        // promises that were linked to this, only to be linked elsewhere, can be garbage collected
+        if (!followed) {
+            this.move(new Waiter(null, link), root);
+        }
+
+        return this;
+    }
+
+    /**
+     * Move a waiter from this (after it was linked) to the root it was linked to.
+     */
+    private void move(Waiter waiter, PromiseBase<?> root) {
+        if (root.push(waiter)) {
+            return;
+        }
+
+        // the root already resolved, so this has as well
+        Thread thread = waiter.thread;
+
+        if (null != thread) {
+            waiter.thread = null;
+            LockSupport.unpark(thread);
+        } else if (null != waiter.listener) {
+            this.claim(waiter);
+        }
+    }
+
+    /**
+     * Blocks until this promise is resolved, without allocating anything unless it actually needs to park.
+     * <p>
+     * Interrupting the waiting thread will not stop it waiting, but the interrupt status will be restored on return.
+     */
+    @Override
+    public void sync() {
+        try {
+            this.await(false, false, 0L);
+        } catch (InterruptedException e) {
+            // unreachable, since we are not interruptible
+            throw new IllegalStateException(e);
         }
     }
 
+    @Override
+    public void sync(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        Objects.requireNonNull(unit);
+
+        if (!this.await(true, true, unit.toNanos(timeout))) {
+            throw new TimeoutException();
+        }
+    }
+
+    @Override
+    public void interruptibleSync() throws InterruptedException {
+        this.await(true, false, 0L);
+    }
+
     @Override
     public T thenSync() {
         this.sync();
@@ -179,4 +340,350 @@ public abstract class PromiseBase<T> implements Promise<T> {
         this.sync();
         return this.getException();
     }
+
+    @Override
+    public void addListener(CompletionListener<? super T> listener) {
+        Objects.requireNonNull(listener);
+
+        if (null != this.outcome()) {
+            this.runListener(listener);
+            return;
+        }
+
+        Waiter waiter = new Waiter(null, listener);
+
+        // if the push raced with resolution, release may or may not have seen it, whoever claims it first runs it
+        if (!this.push(waiter)) {
+            this.claim(waiter);
+        }
+    }
+
+    @Override
+    public boolean removeListener(CompletionListener<? super T> listener) {
+        Objects.requireNonNull(listener);
+
+        PromiseBase<?> root = this.root();
+
+        for (Waiter waiter = root.waiters; null != waiter && RELEASED != waiter; waiter = waiter.next) {
+            // claim it, so it will never be run
+            if (listener == waiter.listener && LISTENER.compareAndSet(waiter, listener, null)) {
+                root.unlink();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Wait for this promise to resolve, spinning briefly, then parking until it is released by {@link #release()}.
+     *
+     * @param interruptible If an interrupt should stop the wait, otherwise the interrupt status is restored on return.
+     * @param timed         If the wait should be limited to nanos.
+     * @param nanos         The max time to wait, only used if timed.
+     * @return True if this promise resolved, false if the wait timed out.
+     * @throws InterruptedException If interruptible, and the thread was interrupted.
+     */
+    private boolean await(boolean interruptible, boolean timed, long nanos) throws InterruptedException {
+        if (null != this.outcome()) {
+            return true;
+        }
+
+        if (interruptible && Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        for (int spins = SPINS; spins > 0; spins--) {
+            if (null != this.outcome()) {
+                return true;
+            }
+        }
+
+        if (timed && nanos <= 0L) {
+            return null != this.outcome();
+        }
+
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+
+        Waiter waiter = new Waiter(Thread.currentThread(), null);
+
+        if (!this.push(waiter)) {
+            waiter.thread = null;
+            return true;
+        }
+
+        boolean interrupted = false;
+
+        try {
+            // guard against spurious wake ups
+            while (null == this.outcome()) {
+                if (timed) {
+                    long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0L) {
+                        return null != this.outcome();
+                    }
+
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+
+                if (Thread.interrupted()) {
+                    if (interruptible) {
+                        throw new InterruptedException();
+                    }
+
+                    interrupted = true;
+                }
+            }
+
+            return true;
+        } finally {
+            if (null != this.outcome()) {
+                waiter.thread = null;
+            } else {
+                // we gave up waiting, don't leave our node behind
+                this.remove(waiter);
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Add a waiter, to be unparked when this promise resolves, to the root of this, if it is linked.
+     *
+     * @param waiter The waiter to add.
+     * @return False if this promise was already resolved, in which case there is no need to wait.
+     */
+    private boolean push(Waiter waiter) {
+        PromiseBase<?> target = this;
+
+        while (true) {
+            Object result = target.result;
+
+            if (result instanceof Link) {
+                target = ((Link) result).target;
+                continue;
+            }
+
+            if (null != result) {
+                return false;
+            }
+
+            Waiter head = target.waiters;
+
+            // the result is always set before the waiters are released, check it again
+            if (RELEASED == head) {
+                continue;
+            }
+
+            waiter.next = head;
+
+            if (WAITERS.compareAndSet(target, head, waiter)) {
+                // the result may have been set before the push, in which case it may not be released, if it was
+                // linked instead then the waiters were (or will be) moved, including this one
+                result = target.result;
+                return null == result || result instanceof Link;
+            }
+        }
+    }
+
+    /**
+     * Remove a waiter that stopped waiting (timed out or was interrupted), unlinking any other such waiters as well.
+     *
+     * @param waiter The waiter to remove.
+     */
+    private void remove(Waiter waiter) {
+        waiter.thread = null;
+        this.root().unlink();
+    }
+
+    /**
+     * Unlink all waiters that are no longer live, since they stopped waiting, or their listener was removed.
+     */
+    private void unlink() {
+        retry:
+        while (true) {
+            Waiter pred = null;
+            Waiter node = this.waiters;
+
+            while (null != node && RELEASED != node) {
+                Waiter next = node.next;
+
+                if (node.isLive()) {
+                    pred = node;
+                } else if (null != pred) {
+                    pred.next = next;
+
+                    // pred was removed concurrently, start again
+                    if (!pred.isLive()) {
+                        continue retry;
+                    }
+                } else if (!WAITERS.compareAndSet(this, node, next)) {
+                    continue retry;
+                }
+
+                node = next;
+            }
+
+            return;
+        }
+    }
+
+    /**
+     * Unpark all waiters, and run all listeners, must only be called after the result was set.
+     */
+    private void release() {
+        // the result is already set, so waiters that missed this will not park
+        if (null == this.waiters) {
+            return;
+        }
+
+        Waiter waiter = WAITERS.getAndSet(this, RELEASED);
+
+        while (null != waiter && RELEASED != waiter) {
+            Thread thread = waiter.thread;
+
+            if (null != thread) {
+                waiter.thread = null;
+                LockSupport.unpark(thread);
+            } else if (null != waiter.listener) {
+                this.claim(waiter);
+            }
+
+            waiter = waiter.next;
+        }
+    }
+
+    /**
+     * Run the listener of a waiter, if nobody else has already, must only be called after the result was set.
+     */
+    @SuppressWarnings("unchecked")
+    private void claim(Waiter waiter) {
+        CompletionListener<? super T> listener = LISTENER.getAndSet(waiter, null);
+
+        if (null != listener) {
+            this.runListener(listener);
+        }
+    }
+
+    /**
+     * Run a listener with the result, must only be called after the result was set.
+     */
+    private void runListener(CompletionListener<? super T> listener) {
+        try {
+            listener.onComplete(this.getValue(), this.getException());
+        } catch (Throwable ignored) {
+            // listeners must not throw, and must not stop us from releasing everything else
+        }
+    }
+
+    /**
+     * @return The promise this is linked to, following every link, which may be this.
+     */
+    private PromiseBase<?> root() {
+        PromiseBase<?> root = this;
+        Object result;
+
+        while ((result = root.result) instanceof Link) {
+            root = ((Link) result).target;
+        }
+
+        return root;
+    }
+
+    /**
+     * @return The result of this, or of the promise this is linked to, {@code null} while {@code PENDING}.
+     */
+    private Object outcome() {
+        Object result = this.result;
+
+        if (!(result instanceof Link)) {
+            return result;
+        }
+
+        Link link = (Link) result;
+        PromiseBase<?> root = link.target.root();
+        result = root.result;
+
+        if (null != result) {
+            // no need to follow the link any longer
+            RESULT.compareAndSet(this, link, result);
+        } else if (root != link.target) {
+            // compress the path, it doesn't matter if this races with the link being moved
+            link.target = root;
+        }
+
+        return result;
+    }
+
+    private static PromiseState stateOf(Object result) {
+        if (null == result) {
+            return PromiseState.PENDING;
+        }
+
+        if (result instanceof Rejection) {
+            return PromiseState.REJECTED;
+        }
+
+        return PromiseState.FULFILLED;
+    }
+
+    /**
+     * The result of a {@code REJECTED} promise, boxed so it can be distinguished from a fulfilled value.
+     */
+    private static final class Rejection {
+        private final Throwable exception;
+
+        private Rejection(Throwable exception) {
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * The result of a promise linked to another, pending, promise, see {@link #resolve(Promise)}.
+     * <p>
+     * It is also a listener, waiting on the promise it links to, so it can be re-pointed if that promise is itself
+     * linked to another, and replaced with the actual result, once it resolves.
+     */
+    private static final class Link implements CompletionListener<Object> {
+        private final PromiseBase<?> promise;
+        private volatile PromiseBase<?> target;
+
+        private Link(PromiseBase<?> promise, PromiseBase<?> target) {
+            this.promise = promise;
+            this.target = target;
+        }
+
+        @Override
+        public void onComplete(Object value, Throwable exception) {
+            RESULT.compareAndSet(this.promise, this, null != exception ? new Rejection(exception) : (null == value ? NULL_VALUE : value));
+        }
+    }
+
+    /**
+     * A thread parked waiting for this promise, or a listener, linked as an intrusive stack.
+     */
+    private static final class Waiter {
+        private volatile Thread thread;
+        // not private, so it is accessible to the field updater
+        volatile CompletionListener listener;
+        private Waiter next;
+
+        private Waiter(Thread thread, CompletionListener listener) {
+            this.thread = thread;
+            this.listener = listener;
+        }
+
+        /**
+         * @return False if this waiter stopped waiting, or it's listener was run, and it can be unlinked.
+         */
+        private boolean isLive() {
+            return null != this.thread || null != this.listener;
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.*;
+
+import java.util.Objects;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The implementation of {@link DoublePromise}, storing the value as a {@code double}, see
+ * {@link PromisePrimitive}.
+ * <p>
+ * Instances are created by {@link PrimitivePromiseFactory}.
+ */
+public class PromiseDouble extends PromisePrimitive implements DoublePromise {
+    /**
+     * Written before the state is published as {@code FULFILLED}.
+     */
+    private double value;
+
+    PromiseDouble(PrimitivePromiseFactory factory) {
+        super(factory);
+    }
+
+    /**
+     * @param value The value to fulfill with.
+     * @return False if this was already resolved.
+     */
+    boolean tryFulfill(double value) {
+        if (!this.begin()) {
+            return false;
+        }
+
+        this.value = value;
+        this.complete();
+
+        return true;
+    }
+
+    @Override
+    void fulfillChained(PromisePrimitive promise) {
+        ((PromiseDouble) promise).tryFulfill(this.value);
+    }
+
+    @Override
+    public IntPromise thenApplyAsInt(DoubleToIntFunction callback) {
+        Objects.requireNonNull(callback);
+        PromiseInt promise = new PromiseInt(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsInt(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public LongPromise thenApplyAsLong(DoubleToLongFunction callback) {
+        Objects.requireNonNull(callback);
+        PromiseLong promise = new PromiseLong(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsLong(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public DoublePromise thenApplyAsDouble(DoubleUnaryOperator callback) {
+        Objects.requireNonNull(callback);
+        PromiseDouble promise = new PromiseDouble(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsDouble(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public <U> Promise<U> thenApply(DoubleFunction<? extends U> callback) {
+        Objects.requireNonNull(callback);
+        Deferred<U> blocker = this.factory.getPromiseFactory().defer();
+
+        this.whenResolved(() -> {
+            Throwable exception = this.getException();
+
+            if (null != exception) {
+                blocker.reject(exception);
+                return;
+            }
+
+            U result;
+
+            try {
+                result = callback.apply(this.value);
+            } catch (Throwable e) {
+                blocker.reject(e);
+                return;
+            }
+
+            blocker.fulfill(result);
+        });
+
+        return blocker.getPromise();
+    }
+
+    @Override
+    public DoublePromise except(ToDoubleFunction<Throwable> callback) {
+        Objects.requireNonNull(callback);
+        PromiseDouble promise = new PromiseDouble(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsDouble(this.getException())), true);
+        return promise;
+    }
+
+    @Override
+    public Promise<Double> boxed() {
+        return this.thenApply(Double::valueOf);
+    }
+
+    @Override
+    public double thenSync() {
+        this.sync();
+        return PromiseState.FULFILLED == this.getState() ? this.value : 0;
+    }
+}
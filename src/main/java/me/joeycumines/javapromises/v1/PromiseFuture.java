@@ -0,0 +1,476 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.*;
+
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A promise that <b>is</b> a {@link CompletableFuture}, rather than being based off one, like {@link PromiseStage}.
+ * <p>
+ * The state, value, and exception are read directly from the future, nothing is copied, and each chained promise is a
+ * single dependant stage of this, created using the non-async methods of {@link CompletableFuture}, unless the
+ * {@link ExecutionPolicy} requires them to be run async, in which case the async methods are used, with the executor
+ * (if any). Promises with a callback that returns another promise are a second stage, using
+ * {@link CompletableFuture#thenCompose(Function)}.
+ * <p>
+ * Exceptions are unwrapped (from {@link CompletionException}) once, when they are read, so the exceptions that
+ * promises reject with are the same as any other implementation, even though the future may hold a wrapped exception.
+ * Cancellation is the same as {@link CompletableFuture#cancel(boolean)}, so {@link #isCancelled()} is only true for the
+ * promise that was cancelled, though promises chained from it will reject with the {@link CancellationException}.
+ * <p>
+ * On Java 9 and later, chained stages are created as instances of this class, which inherit the executor and policy,
+ * on Java 8 they are adapted, with an additional stage.
+ */
+public class PromiseFuture<T> extends CompletableFuture<T> implements ListenablePromise<T>, Deferred<T> {
+    private final Executor executor;
+    private final ExecutionPolicy policy;
+
+    /**
+     * The exception this rejected with, unwrapped, cached once read.
+     */
+    private volatile Throwable exception;
+
+    public PromiseFuture() {
+        this(null);
+    }
+
+    public PromiseFuture(Executor executor) {
+        this(executor, ExecutionPolicy.ASYNC);
+    }
+
+    /**
+     * @param executor The executor if desired, will be inherited by all chained promises.
+     * @param policy   How chained promises will be run, will be inherited by all chained promises.
+     */
+    public PromiseFuture(Executor executor, ExecutionPolicy policy) {
+        super();
+
+        Objects.requireNonNull(policy);
+
+        this.executor = executor;
+        this.policy = policy;
+        this.exception = null;
+    }
+
+    /**
+     * @param value    The value to fulfill with.
+     * @param executor The executor if desired, will be inherited by all chained promises.
+     * @param policy   How chained promises will be run, will be inherited by all chained promises.
+     * @param <T>      The type of the promise.
+     * @return A new {@code FULFILLED} promise.
+     */
+    public static <T> PromiseFuture<T> fulfilled(T value, Executor executor, ExecutionPolicy policy) {
+        PromiseFuture<T> promise = new PromiseFuture<>(executor, policy);
+        promise.complete(value);
+        return promise;
+    }
+
+    /**
+     * @param exception The exception to reject with.
+     * @param executor  The executor if desired, will be inherited by all chained promises.
+     * @param policy    How chained promises will be run, will be inherited by all chained promises.
+     * @param <T>       The type of the promise.
+     * @return A new {@code REJECTED} promise.
+     */
+    public static <T> PromiseFuture<T> rejected(Throwable exception, Executor executor, ExecutionPolicy policy) {
+        Objects.requireNonNull(exception);
+
+        PromiseFuture<T> promise = new PromiseFuture<>(executor, policy);
+        promise.completeExceptionally(exception);
+        return promise;
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    public ExecutionPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Stages chained from this, using the methods of {@link CompletableFuture}, will be instances of this class, on
+     * Java 9 and later, where this overrides the method of the same name.
+     *
+     * @param <U> The type of the new future.
+     * @return A new {@code PENDING} promise, with the same executor and policy as this.
+     */
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new PromiseFuture<>(this.executor, this.policy);
+    }
+
+    @Override
+    public PromiseState getState() {
+        if (!this.isDone()) {
+            return PromiseState.PENDING;
+        }
+
+        return this.isCompletedExceptionally() ? PromiseState.REJECTED : PromiseState.FULFILLED;
+    }
+
+    /**
+     * @return This promise.
+     */
+    @Override
+    public PromiseFuture<T> getPromise() {
+        return this;
+    }
+
+    @Override
+    public PromiseFuture<T> fulfill(T value) throws SelfResolutionException, MutatedStateException {
+        if (this == value) {
+            throw new SelfResolutionException(this);
+        }
+
+        if (!this.complete(value)) {
+            throw new MutatedStateException(this, this.getState(), PromiseState.FULFILLED);
+        }
+
+        return this;
+    }
+
+    @Override
+    public PromiseFuture<T> reject(Throwable reason) throws NullPointerException, MutatedStateException {
+        Objects.requireNonNull(reason);
+
+        if (!this.completeExceptionally(reason)) {
+            throw new MutatedStateException(this, this.getState(), PromiseState.REJECTED);
+        }
+
+        return this;
+    }
+
+    /**
+     * Cancel this promise, if it is still {@code PENDING}, which will cancel all chained promises.
+     *
+     * @return True if this call cancelled this promise.
+     */
+    @Override
+    public boolean cancel() {
+        // unlike cancel(boolean), only report true if this call was the one to complete the future
+        return this.completeExceptionally(new CancellationException());
+    }
+
+    @Override
+    public void sync() {
+        if (this.isDone()) {
+            return;
+        }
+
+        try {
+            this.join();
+        } catch (CompletionException | CancellationException ignored) {
+            // we only wanted to wait
+        }
+    }
+
+    @Override
+    public void sync(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        Objects.requireNonNull(unit);
+
+        if (this.isDone()) {
+            return;
+        }
+
+        try {
+            this.get(timeout, unit);
+        } catch (ExecutionException | CancellationException ignored) {
+            // we only wanted to wait
+        }
+    }
+
+    @Override
+    public void interruptibleSync() throws InterruptedException {
+        if (this.isDone()) {
+            return;
+        }
+
+        try {
+            this.get();
+        } catch (ExecutionException | CancellationException ignored) {
+            // we only wanted to wait
+        }
+    }
+
+    @Override
+    public T thenSync() {
+        this.sync();
+        return this.isCompletedExceptionally() ? null : this.getNow(null);
+    }
+
+    @Override
+    public Throwable exceptSync() {
+        this.sync();
+        return this.getException();
+    }
+
+    @Override
+    public void addListener(CompletionListener<? super T> listener) {
+        Objects.requireNonNull(listener);
+
+        if (this.isDone()) {
+            this.runListener(listener);
+            return;
+        }
+
+        this.whenComplete((value, exception) -> this.runListener(listener));
+    }
+
+    /**
+     * Listeners are stages of the future, which cannot be removed.
+     *
+     * @return False.
+     */
+    @Override
+    public boolean removeListener(CompletionListener<? super T> listener) {
+        Objects.requireNonNull(listener);
+
+        return false;
+    }
+
+    @Override
+    public <U> Promise<U> then(Function<? super T, ? extends Promise<? extends U>> callback) {
+        Function<? super T, CompletionStage<U>> fn = (value) -> toStage(callback.apply(value));
+
+        if (this.isInline()) {
+            return adopt(this.thenCompose(fn));
+        }
+
+        if (null == this.executor) {
+            return adopt(this.thenComposeAsync(fn));
+        }
+
+        return adopt(this.thenComposeAsync(fn, this.executor));
+    }
+
+    @Override
+    public <U> Promise<U> then(BiConsumer<? super T, Consumer<? super U>> callback) {
+        return this.applyStage((value) -> {
+            Result<U> result = new Result<>();
+
+            try {
+                callback.accept(value, result);
+            } catch (RuntimeException e) {
+                if (!result.isSet()) {
+                    throw e;
+                }
+            }
+
+            return result.getValue();
+        });
+    }
+
+    @Override
+    public Promise<T> except(Function<Throwable, ? extends Promise<? extends T>> callback) {
+        return this.composeStage((value, exception) -> null == exception ? this : toStage(callback.apply(unwrap(exception))));
+    }
+
+    @Override
+    public Promise<T> except(BiConsumer<Throwable, Consumer<? super T>> callback) {
+        return this.handleStage((value, exception) -> {
+            if (null == exception) {
+                return value;
+            }
+
+            Result<T> result = new Result<>();
+
+            try {
+                callback.accept(unwrap(exception), result);
+            } catch (RuntimeException e) {
+                if (!result.isSet()) {
+                    throw e;
+                }
+            }
+
+            return result.getValue();
+        });
+    }
+
+    @Override
+    public <U> Promise<U> always(BiFunction<? super T, Throwable, ? extends Promise<? extends U>> callback) {
+        return this.composeStage((value, exception) -> toStage(callback.apply(value, unwrap(exception))));
+    }
+
+    @Override
+    public <U> Promise<U> map(Function<? super T, ? extends U> callback) {
+        Objects.requireNonNull(callback);
+
+        return this.applyStage(callback);
+    }
+
+    @Override
+    public Promise<T> exceptMap(Function<Throwable, ? extends T> callback) {
+        Objects.requireNonNull(callback);
+
+        return this.handleStage((value, exception) -> null == exception ? value : callback.apply(unwrap(exception)));
+    }
+
+    /**
+     * @return The exception this rejected with, unwrapped, or null if it is not {@code REJECTED}.
+     */
+    private Throwable getException() {
+        if (!this.isCompletedExceptionally()) {
+            return null;
+        }
+
+        Throwable exception = this.exception;
+
+        if (null != exception) {
+            return exception;
+        }
+
+        try {
+            this.join();
+        } catch (CompletionException e) {
+            exception = unwrap(e);
+        } catch (CancellationException e) {
+            exception = e;
+        }
+
+        this.exception = exception;
+
+        return exception;
+    }
+
+    /**
+     * Run a listener with the result, must only be called after this is done.
+     */
+    private void runListener(CompletionListener<? super T> listener) {
+        try {
+            listener.onComplete(this.thenSync(), this.getException());
+        } catch (Throwable ignored) {
+            // listeners must not throw
+        }
+    }
+
+    /**
+     * Should chained promises be run inline, as dictated by the policy.
+     */
+    private boolean isInline() {
+        return ExecutionPolicy.INLINE_ON_RESOLVE == this.policy ||
+                (ExecutionPolicy.INLINE_WHEN_RESOLVED == this.policy && this.isDone());
+    }
+
+    /**
+     * Chain a new promise from this, using thenApply.
+     */
+    private <U> PromiseFuture<U> applyStage(Function<? super T, ? extends U> fn) {
+        if (this.isInline()) {
+            return adopt(this.thenApply(fn));
+        }
+
+        if (null == this.executor) {
+            return adopt(this.thenApplyAsync(fn));
+        }
+
+        return adopt(this.thenApplyAsync(fn, this.executor));
+    }
+
+    /**
+     * Chain a new promise from this, using handle.
+     */
+    private <U> PromiseFuture<U> handleStage(BiFunction<? super T, Throwable, ? extends U> fn) {
+        if (this.isInline()) {
+            return adopt(this.handle(fn));
+        }
+
+        if (null == this.executor) {
+            return adopt(this.handleAsync(fn));
+        }
+
+        return adopt(this.handleAsync(fn, this.executor));
+    }
+
+    /**
+     * Chain a new promise from this, using handle, then thenCompose to flatten the stage the function returns.
+     */
+    private <U> PromiseFuture<U> composeStage(BiFunction<? super T, Throwable, ? extends CompletionStage<U>> fn) {
+        return adopt(this.handleStage(fn).thenCompose(Function.identity()));
+    }
+
+    /**
+     * @return The stage, as a promise of this class, which it will already be, on Java 9 and later.
+     */
+    @SuppressWarnings("unchecked")
+    private <U> PromiseFuture<U> adopt(CompletableFuture<U> future) {
+        if (future instanceof PromiseFuture) {
+            return (PromiseFuture<U>) future;
+        }
+
+        PromiseFuture<U> promise = new PromiseFuture<>(this.executor, this.policy);
+
+        future.whenComplete((value, exception) -> {
+            if (null != exception) {
+                promise.completeExceptionally(exception);
+            } else {
+                promise.complete(value);
+            }
+        });
+
+        return promise;
+    }
+
+    /**
+     * Convert the promise returned by a callback to a stage, which is done without any additional stages if it is a
+     * {@link CompletionStage} already, or resolved.
+     */
+    @SuppressWarnings("unchecked")
+    static <U> CompletionStage<U> toStage(Promise<? extends U> promise) {
+        if (null == promise) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (promise instanceof CompletionStage) {
+            return (CompletionStage<U>) promise;
+        }
+
+        CompletableFuture<U> future = new CompletableFuture<>();
+        ListenablePromise.addListener(promise, (value, exception) -> {
+            if (null != exception) {
+                future.completeExceptionally(exception);
+            } else {
+                future.complete(value);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Unwrap an exception from a completed stage, if it was wrapped in a {@link CompletionException}.
+     */
+    static Throwable unwrap(Throwable exception) {
+        if (exception instanceof CompletionException && null != exception.getCause()) {
+            return exception.getCause();
+        }
+
+        return exception;
+    }
+
+    /**
+     * Captures the value passed to the consumer of the callback based then and except.
+     */
+    private static final class Result<U> implements Consumer<U> {
+        private U value;
+        private boolean set;
+
+        @Override
+        public void accept(U value) {
+            this.value = value;
+            this.set = true;
+        }
+
+        private U getValue() {
+            return this.value;
+        }
+
+        private boolean isSet() {
+            return this.set;
+        }
+    }
+}
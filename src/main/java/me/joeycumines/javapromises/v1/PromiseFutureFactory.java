@@ -0,0 +1,128 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.*;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A factory for creating {@link PromiseFuture} instances, each of which is a single {@link java.util.concurrent.CompletableFuture}.
+ * <p>
+ * Fulfilled promises are never shared, unlike the other factories, since any future can be overwritten (obtruded).
+ */
+public class PromiseFutureFactory extends PromiseApi {
+    private static PromiseFutureFactory globalInstance;
+
+    private final Executor executor;
+    private final ExecutionPolicy policy;
+
+    public PromiseFutureFactory() {
+        this(null);
+    }
+
+    public PromiseFutureFactory(Executor executor) {
+        this(executor, ExecutionPolicy.ASYNC);
+    }
+
+    /**
+     * @param executor The executor to create promises with, can be null.
+     * @param policy   How chained promises will be run.
+     */
+    public PromiseFutureFactory(Executor executor, ExecutionPolicy policy) {
+        Objects.requireNonNull(policy);
+
+        this.executor = executor;
+        this.policy = policy;
+    }
+
+    @Override
+    public <T> Promise<T> create(BiConsumer<Consumer<? super T>, Consumer<Throwable>> action) {
+        Objects.requireNonNull(action);
+
+        PromiseFuture<T> promise = new PromiseFuture<>(this.executor, this.policy);
+
+        Runnable task = () -> {
+            try {
+                action.accept(promise::fulfill, promise::reject);
+            } catch (Throwable e) {
+                promise.completeExceptionally(e);
+            }
+        };
+
+        if (null == this.executor) {
+            CompletableFuture.runAsync(task);
+        } else {
+            this.executor.execute(task);
+        }
+
+        return promise;
+    }
+
+    @Override
+    public <T> Promise<T> reject(Throwable reason) {
+        return PromiseFuture.rejected(reason, this.executor, this.policy);
+    }
+
+    @Override
+    public <T> Promise<T> fulfill(T value) {
+        return PromiseFuture.fulfilled(value, this.executor, this.policy);
+    }
+
+    @Override
+    public <T> Promise<T> wrap(Promise<? extends T> promise) {
+        Objects.requireNonNull(promise);
+
+        PromiseFuture<T> future = new PromiseFuture<>(this.executor, this.policy);
+        ListenablePromise.addListener(promise, new Completer<>(future));
+
+        return future;
+    }
+
+    /**
+     * The returned promise is a {@link PromiseFuture}, which is completed directly.
+     */
+    @Override
+    public <T> Deferred<T> defer() {
+        return new PromiseFuture<>(this.executor, this.policy);
+    }
+
+    /**
+     * @return A global PromiseFutureFactory (thread safe).
+     */
+    public static PromiseFutureFactory getInstance() {
+        // double checked locking
+        if (null == globalInstance) {
+            synchronized (PromiseFutureFactory.class) {
+                if (null == globalInstance) {
+                    globalInstance = new PromiseFutureFactory(Executors.newCachedThreadPool());
+                }
+            }
+        }
+
+        return globalInstance;
+    }
+
+    /**
+     * Completes a future the same way as the promise it listens to.
+     */
+    private static final class Completer<T> implements CompletionListener<T> {
+        private final PromiseFuture<? super T> future;
+
+        private Completer(PromiseFuture<? super T> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void onComplete(T value, Throwable exception) {
+            if (null != exception) {
+                this.future.completeExceptionally(exception);
+            } else {
+                this.future.complete(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.*;
+
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * The implementation of {@link IntPromise}, storing the value as an {@code int}, see
+ * {@link PromisePrimitive}.
+ * <p>
+ * Instances are created by {@link PrimitivePromiseFactory}.
+ */
+public class PromiseInt extends PromisePrimitive implements IntPromise {
+    /**
+     * Written before the state is published as {@code FULFILLED}.
+     */
+    private int value;
+
+    PromiseInt(PrimitivePromiseFactory factory) {
+        super(factory);
+    }
+
+    /**
+     * @param value The value to fulfill with.
+     * @return False if this was already resolved.
+     */
+    boolean tryFulfill(int value) {
+        if (!this.begin()) {
+            return false;
+        }
+
+        this.value = value;
+        this.complete();
+
+        return true;
+    }
+
+    @Override
+    void fulfillChained(PromisePrimitive promise) {
+        ((PromiseInt) promise).tryFulfill(this.value);
+    }
+
+    @Override
+    public IntPromise thenApplyAsInt(IntUnaryOperator callback) {
+        Objects.requireNonNull(callback);
+        PromiseInt promise = new PromiseInt(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsInt(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public LongPromise thenApplyAsLong(IntToLongFunction callback) {
+        Objects.requireNonNull(callback);
+        PromiseLong promise = new PromiseLong(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsLong(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public DoublePromise thenApplyAsDouble(IntToDoubleFunction callback) {
+        Objects.requireNonNull(callback);
+        PromiseDouble promise = new PromiseDouble(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsDouble(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public <U> Promise<U> thenApply(IntFunction<? extends U> callback) {
+        Objects.requireNonNull(callback);
+        Deferred<U> blocker = this.factory.getPromiseFactory().defer();
+
+        this.whenResolved(() -> {
+            Throwable exception = this.getException();
+
+            if (null != exception) {
+                blocker.reject(exception);
+                return;
+            }
+
+            U result;
+
+            try {
+                result = callback.apply(this.value);
+            } catch (Throwable e) {
+                blocker.reject(e);
+                return;
+            }
+
+            blocker.fulfill(result);
+        });
+
+        return blocker.getPromise();
+    }
+
+    @Override
+    public IntPromise except(ToIntFunction<Throwable> callback) {
+        Objects.requireNonNull(callback);
+        PromiseInt promise = new PromiseInt(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsInt(this.getException())), true);
+        return promise;
+    }
+
+    @Override
+    public Promise<Integer> boxed() {
+        return this.thenApply(Integer::valueOf);
+    }
+
+    @Override
+    public int thenSync() {
+        this.sync();
+        return PromiseState.FULFILLED == this.getState() ? this.value : 0;
+    }
+}
@@ -0,0 +1,118 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.*;
+
+import java.util.Objects;
+import java.util.function.LongFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+/**
+ * The implementation of {@link LongPromise}, storing the value as a {@code long}, see
+ * {@link PromisePrimitive}.
+ * <p>
+ * Instances are created by {@link PrimitivePromiseFactory}.
+ */
+public class PromiseLong extends PromisePrimitive implements LongPromise {
+    /**
+     * Written before the state is published as {@code FULFILLED}.
+     */
+    private long value;
+
+    PromiseLong(PrimitivePromiseFactory factory) {
+        super(factory);
+    }
+
+    /**
+     * @param value The value to fulfill with.
+     * @return False if this was already resolved.
+     */
+    boolean tryFulfill(long value) {
+        if (!this.begin()) {
+            return false;
+        }
+
+        this.value = value;
+        this.complete();
+
+        return true;
+    }
+
+    @Override
+    void fulfillChained(PromisePrimitive promise) {
+        ((PromiseLong) promise).tryFulfill(this.value);
+    }
+
+    @Override
+    public IntPromise thenApplyAsInt(LongToIntFunction callback) {
+        Objects.requireNonNull(callback);
+        PromiseInt promise = new PromiseInt(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsInt(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public LongPromise thenApplyAsLong(LongUnaryOperator callback) {
+        Objects.requireNonNull(callback);
+        PromiseLong promise = new PromiseLong(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsLong(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public DoublePromise thenApplyAsDouble(LongToDoubleFunction callback) {
+        Objects.requireNonNull(callback);
+        PromiseDouble promise = new PromiseDouble(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsDouble(this.value)), false);
+        return promise;
+    }
+
+    @Override
+    public <U> Promise<U> thenApply(LongFunction<? extends U> callback) {
+        Objects.requireNonNull(callback);
+        Deferred<U> blocker = this.factory.getPromiseFactory().defer();
+
+        this.whenResolved(() -> {
+            Throwable exception = this.getException();
+
+            if (null != exception) {
+                blocker.reject(exception);
+                return;
+            }
+
+            U result;
+
+            try {
+                result = callback.apply(this.value);
+            } catch (Throwable e) {
+                blocker.reject(e);
+                return;
+            }
+
+            blocker.fulfill(result);
+        });
+
+        return blocker.getPromise();
+    }
+
+    @Override
+    public LongPromise except(ToLongFunction<Throwable> callback) {
+        Objects.requireNonNull(callback);
+        PromiseLong promise = new PromiseLong(this.factory);
+        this.subscribe(promise, () -> promise.tryFulfill(callback.applyAsLong(this.getException())), true);
+        return promise;
+    }
+
+    @Override
+    public Promise<Long> boxed() {
+        return this.thenApply(Long::valueOf);
+    }
+
+    @Override
+    public long thenSync() {
+        this.sync();
+        return PromiseState.FULFILLED == this.getState() ? this.value : 0;
+    }
+}
@@ -0,0 +1,293 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.PromiseState;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The shared, thread-safe implementation of the primitive promises, {@link PromiseInt}, {@link PromiseLong}, and
+ * {@link PromiseDouble}, which extend this, storing their own (unboxed) value.
+ * <p>
+ * Resolution happens in two steps, a compare-and-set from {@code PENDING} claims the promise, after which the value
+ * (or exception) is written, and then the final state is published, with a volatile write. Until then the promise is
+ * still considered {@code PENDING}.
+ * <p>
+ * Chained promises (and blocked threads) are kept in an intrusive stack, which is released by the resolving thread.
+ * Chained promises are run using the executor of the {@link PrimitivePromiseFactory} that created them, as dictated by
+ * it's {@link ExecutionPolicy}.
+ */
+public abstract class PromisePrimitive {
+    private static final int PENDING = 0;
+    private static final int COMPLETING = 1;
+    private static final int FULFILLED = 2;
+    private static final int REJECTED = 3;
+
+    private static final AtomicIntegerFieldUpdater<PromisePrimitive> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(PromisePrimitive.class, "state");
+
+    private static final AtomicReferenceFieldUpdater<PromisePrimitive, Node> STACK =
+            AtomicReferenceFieldUpdater.newUpdater(PromisePrimitive.class, Node.class, "stack");
+
+    /**
+     * Stored as the stack once it has been released, nothing may be added after this point.
+     */
+    private static final Node RELEASED = new Node(null, null, null, false);
+
+    protected final PrimitivePromiseFactory factory;
+
+    private volatile int state;
+
+    /**
+     * Written before the state is published as {@code REJECTED}.
+     */
+    private Throwable exception;
+
+    private volatile Node stack;
+
+    PromisePrimitive(PrimitivePromiseFactory factory) {
+        Objects.requireNonNull(factory);
+
+        this.factory = factory;
+        this.state = PENDING;
+        this.exception = null;
+        this.stack = null;
+    }
+
+    public PrimitivePromiseFactory getFactory() {
+        return this.factory;
+    }
+
+    public PromiseState getState() {
+        switch (this.state) {
+            case FULFILLED:
+                return PromiseState.FULFILLED;
+            case REJECTED:
+                return PromiseState.REJECTED;
+            default:
+                return PromiseState.PENDING;
+        }
+    }
+
+    /**
+     * Cancel this promise, if it is still {@code PENDING}, rejecting it with a {@link CancellationException}.
+     *
+     * @return True if this call cancelled this promise.
+     */
+    public boolean cancel() {
+        return this.tryReject(new CancellationException());
+    }
+
+    public void sync() {
+        if (this.state > COMPLETING) {
+            return;
+        }
+
+        Node waiter = new Node(null, null, null, false);
+        waiter.thread = Thread.currentThread();
+
+        if (!this.push(waiter)) {
+            waiter.thread = null;
+            return;
+        }
+
+        boolean interrupted = false;
+
+        // guard against spurious wake ups
+        while (this.state <= COMPLETING) {
+            LockSupport.park(this);
+
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+        }
+
+        waiter.thread = null;
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Throwable exceptSync() {
+        this.sync();
+        return this.getException();
+    }
+
+    /**
+     * @return The exception, or null if this is not {@code REJECTED}.
+     */
+    protected Throwable getException() {
+        return REJECTED == this.state ? this.exception : null;
+    }
+
+    /**
+     * @return True if this was claimed for resolution, in which case the value must be written, then
+     * {@link #complete()} called.
+     */
+    boolean begin() {
+        return PENDING == this.state && STATE.compareAndSet(this, PENDING, COMPLETING);
+    }
+
+    /**
+     * Publish this as {@code FULFILLED}, and release everything waiting on it, after a successful {@link #begin()}.
+     */
+    void complete() {
+        this.state = FULFILLED;
+        this.release();
+    }
+
+    boolean tryReject(Throwable exception) {
+        Objects.requireNonNull(exception);
+
+        if (!this.begin()) {
+            return false;
+        }
+
+        this.exception = exception;
+        this.state = REJECTED;
+        this.release();
+
+        return true;
+    }
+
+    /**
+     * Resolve a promise (of the same type) chained from this with the same value, only called if this FULFILLED.
+     *
+     * @param promise The promise to fulfill.
+     */
+    abstract void fulfillChained(PromisePrimitive promise);
+
+    /**
+     * Run an action once this resolves, as a promise chained from this.
+     *
+     * @param promise The chained promise, which will be rejected if the action throws.
+     * @param action  The action to run, with this resolved, if this resolved in the state matching recover.
+     * @param recover If the action should be run if this REJECTED, rather than FULFILLED. If the state doesn't match
+     *                the promise will be resolved the same as this.
+     */
+    void subscribe(PromisePrimitive promise, Runnable action, boolean recover) {
+        Node node = new Node(this, promise, action, recover);
+
+        if (!this.push(node)) {
+            this.dispatch(node, true);
+        }
+    }
+
+    /**
+     * Run an action once this resolves, regardless of the state, the action must not throw.
+     *
+     * @param action The action to run.
+     */
+    void whenResolved(Runnable action) {
+        this.subscribe(null, action, false);
+    }
+
+    private boolean push(Node node) {
+        while (true) {
+            Node head = this.stack;
+
+            if (RELEASED == head || this.state > COMPLETING) {
+                return false;
+            }
+
+            node.next = head;
+
+            if (STACK.compareAndSet(this, head, node)) {
+                // the stack was not yet released, and release always drains it after publishing the state
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        if (null == this.stack && STACK.compareAndSet(this, null, RELEASED)) {
+            return;
+        }
+
+        Node head = STACK.getAndSet(this, RELEASED);
+
+        // the stack is in reverse order, flip it so things are run in the order they were added
+        Node node = null;
+
+        while (null != head && RELEASED != head) {
+            Node next = head.next;
+            head.next = node;
+            node = head;
+            head = next;
+        }
+
+        while (null != node) {
+            Node next = node.next;
+            node.next = null;
+
+            Thread thread = node.thread;
+
+            if (null != thread) {
+                node.thread = null;
+                LockSupport.unpark(thread);
+            } else if (null != node.action) {
+                this.dispatch(node, false);
+            }
+
+            node = next;
+        }
+    }
+
+    private void dispatch(Node node, boolean resolved) {
+        ExecutionPolicy policy = this.factory.getPolicy();
+
+        if (ExecutionPolicy.INLINE_ON_RESOLVE == policy || (resolved && ExecutionPolicy.INLINE_WHEN_RESOLVED == policy)) {
+            TrampolineRunner.getInstance().execute(node);
+            return;
+        }
+
+        this.factory.getExecutor().execute(node);
+    }
+
+    /**
+     * Either a chained action, or a blocked thread, linked as an intrusive stack.
+     */
+    private static final class Node implements Runnable {
+        private final PromisePrimitive source;
+        private final PromisePrimitive promise;
+        private final Runnable action;
+        private final boolean recover;
+        private volatile Thread thread;
+        private Node next;
+
+        private Node(PromisePrimitive source, PromisePrimitive promise, Runnable action, boolean recover) {
+            this.source = source;
+            this.promise = promise;
+            this.action = action;
+            this.recover = recover;
+        }
+
+        @Override
+        public void run() {
+            // always run the action if there is no chained promise
+            if (null == this.promise || recover == (REJECTED == this.source.state)) {
+                try {
+                    this.action.run();
+                } catch (Throwable e) {
+                    if (null == this.promise) {
+                        throw e;
+                    }
+
+                    this.promise.tryReject(e);
+                }
+                return;
+            }
+
+            // inherit the state of the source
+            if (REJECTED == this.source.state) {
+                this.promise.tryReject(this.source.exception);
+            } else {
+                this.source.fulfillChained(this.promise);
+            }
+        }
+    }
+}
@@ -2,7 +2,8 @@ package me.joeycumines.javapromises.v1;
 
 import me.joeycumines.javapromises.core.*;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -18,8 +19,26 @@ import java.util.function.Function;
  * - action will only be executed AT MOST once, either manually, or part of internal logic
  * - neither action nor runner is required IF you are not calling {@link #run()}, and will manage the state externally
  * - executing actions are handled by the PromiseRunner, implement that however you wish
+ * - chained promises are run as dictated by the {@link ExecutionPolicy}, which may bypass the runner entirely
+ * - cancelled chained promises are never run, and are unlinked from the promise they were chained from
  */
-public class PromiseRunnable<T> extends PromiseBase<T> {
+public class PromiseRunnable<T> extends PromiseBase<T> implements Deferred<T> {
+    /**
+     * Marks the subscriber stack of a promise as broadcast; anything subscribing after this point is run immediately.
+     */
+    private static final PromiseRunnable<Object> BROADCAST = new PromiseRunnable<>();
+
+    private static final AtomicReferenceFieldUpdater<PromiseRunnable, PromiseRunnable> SUBSCRIBERS =
+            AtomicReferenceFieldUpdater.newUpdater(PromiseRunnable.class, PromiseRunnable.class, "subscribers");
+
+    /**
+     * The shared actions of promises chained using the overloads that take a context, see {@link #then(Object, BiFunction)}.
+     */
+    private static final Consumer<PromiseRunnable<Object>> THEN_CONTEXT = PromiseRunnable::runThenContext;
+    private static final Consumer<PromiseRunnable<Object>> EXCEPT_CONTEXT = PromiseRunnable::runExceptContext;
+    private static final Consumer<PromiseRunnable<Object>> MAP_CONTEXT = PromiseRunnable::runMapContext;
+    private static final Consumer<PromiseRunnable<Object>> EXCEPT_MAP_CONTEXT = PromiseRunnable::runExceptMapContext;
+
     /**
      * The action that may be executed by this promise, using the runner.
      * <p>
@@ -36,6 +55,11 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
      */
     private PromiseRunner runner;
 
+    /**
+     * Dictates how promises chained from this are run, inherited by all chained promises.
+     */
+    private final ExecutionPolicy policy;
+
     /**
      * Has this promise been run yet.
      * <p>
@@ -44,9 +68,38 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
     private boolean run;
 
     /**
-     * A list of promises that will be run on finalization of this.
+     * The head of an intrusive (Treiber) stack of the promises that will be run on finalization of this, linked
+     * together by their {@link #next} field. The common case, a single chained promise, is simply stored here.
+     * <p>
+     * Set to {@link #BROADCAST} once, when the stack is taken for broadcast.
+     */
+    private volatile PromiseRunnable<?> subscribers;
+
+    /**
+     * The next promise in the subscriber stack of the promise this was subscribed to.
+     * <p>
+     * Only written before this is pushed onto that stack, or while holding that promise's lock, and the stack is only
+     * taken while holding that lock (see {@link #purge()}).
      */
-    private final ConcurrentLinkedQueue<PromiseRunnable<?>> subscriberQueue;
+    private PromiseRunnable<?> next;
+
+    /**
+     * The promise this was subscribed to, until it is broadcast, used to unlink this on cancellation.
+     * <p>
+     * This is a hint only, reading a stale value is harmless.
+     */
+    private PromiseRunnable<?> parent;
+
+    /**
+     * The promise this was chained from, the context, and the callback, for promises chained using the overloads that
+     * take a context, see {@link #then(Object, BiFunction)}. These promises share a static action, which reads these
+     * fields, so chaining allocates nothing but the promise itself.
+     * <p>
+     * Only written before this is subscribed, and cleared once read, by the action.
+     */
+    private PromiseRunnable<?> source;
+    private Object context;
+    private Object callback;
 
     public PromiseRunnable() {
         this(null, null);
@@ -57,12 +110,49 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
     }
 
     public PromiseRunnable(PromiseRunner runner, Consumer<PromiseRunnable<T>> action) {
+        this(runner, action, ExecutionPolicy.ASYNC);
+    }
+
+    public PromiseRunnable(PromiseRunner runner, Consumer<PromiseRunnable<T>> action, ExecutionPolicy policy) {
         super();
 
+        Objects.requireNonNull(policy);
+
         this.action = action;
         this.runner = runner;
+        this.policy = policy;
         this.run = false;
-        this.subscriberQueue = new ConcurrentLinkedQueue<PromiseRunnable<?>>();
+        this.subscribers = null;
+        this.next = null;
+        this.parent = null;
+        this.source = null;
+        this.context = null;
+        this.callback = null;
+    }
+
+    /**
+     * Create a promise that is already resolved, and marked as run, without locking or broadcasting.
+     *
+     * @param runner    The runner, inherited by chained promises.
+     * @param policy    The execution policy, inherited by chained promises.
+     * @param value     The value to fulfill with, ignored if exception is not null.
+     * @param exception The exception to reject with, or null to fulfill.
+     */
+    PromiseRunnable(PromiseRunner runner, ExecutionPolicy policy, T value, Throwable exception) {
+        super(value, exception);
+
+        Objects.requireNonNull(policy);
+
+        this.action = null;
+        this.runner = runner;
+        this.policy = policy;
+        this.run = true;
+        this.subscribers = BROADCAST;
+        this.next = null;
+        this.parent = null;
+        this.source = null;
+        this.context = null;
+        this.callback = null;
     }
 
     public Consumer<PromiseRunnable<T>> getAction() {
@@ -81,7 +171,20 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
         }
     }
 
-    public PromiseRunnable<T> setAction(Consumer<PromiseRunnable<T>> action) throws IllegalStateException {
+    /**
+     * Resolved promises can never be run, and may be shared (see {@link FulfilledPromiseCache}), so they must not be
+     * changed.
+     */
+    private void assureNotResolved() {
+        PromiseState state = this.getState();
+
+        if (PromiseState.PENDING != state) {
+            throw new MutatedStateException(this, state, state);
+        }
+    }
+
+    public PromiseRunnable<T> setAction(Consumer<PromiseRunnable<T>> action) throws IllegalStateException, MutatedStateException {
+        this.assureNotResolved();
         this.assureActionNotSet();
 
         synchronized (this.lock) {
@@ -109,7 +212,8 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
         }
     }
 
-    public PromiseRunnable<T> setRunner(PromiseRunner runner) throws IllegalStateException {
+    public PromiseRunnable<T> setRunner(PromiseRunner runner) throws IllegalStateException, MutatedStateException {
+        this.assureNotResolved();
         this.assureRunnerNotSet();
 
         synchronized (this.lock) {
@@ -121,6 +225,10 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
         return this;
     }
 
+    public ExecutionPolicy getPolicy() {
+        return this.policy;
+    }
+
     public boolean isRun() {
         if (this.run) {
             return true;
@@ -165,6 +273,46 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
         return this;
     }
 
+    /**
+     * Run this promise's action directly on the calling thread, rather than using the runner.
+     * <p>
+     * To avoid overflowing the stack on long chains, this is bounded by {@link TrampolineRunner#getInstance()}, so if
+     * called while already deeply nested the action may be deferred, until the outermost inline call on this thread.
+     *
+     * @return This promise.
+     * @throws RunPromiseException If there was no action, or the promise was already run.
+     */
+    public PromiseRunnable<T> runInline() {
+        Consumer<PromiseRunnable<T>> action;
+
+        synchronized (this.lock) {
+            if (null == this.action) {
+                throw new RunPromiseException(this, "no action was provided");
+            }
+
+            if (this.run) {
+                throw new RunPromiseException(this, "the promise was already run");
+            }
+
+            this.run = true;
+
+            action = this.action;
+        }
+
+        // never run the action while holding the lock
+        TrampolineRunner.getInstance().execute(action, this);
+
+        return this;
+    }
+
+    /**
+     * @return This promise.
+     */
+    @Override
+    public PromiseRunnable<T> getPromise() {
+        return this;
+    }
+
     @Override
     public PromiseRunnable<T> reject(Throwable exception) throws MutatedStateException, NullPointerException {
         super.reject(exception);
@@ -183,35 +331,190 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
     public PromiseRunnable<T> resolve(Promise<? extends T> promise) throws SelfResolutionException, MutatedStateException {
         super.resolve(promise);
         this.broadcast();
+
+        // if we were linked we won't be told when we resolve, the subscribers need to listen for it, the root may have
+        // completed since the broadcast above, unlinking us, so a resolved state counts too, the order matters
+        PromiseRunnable<?> head = this.subscribers;
+
+        if (null != head && BROADCAST != head && (this.isLinked() || PromiseState.PENDING != this.getState())) {
+            this.addListener(this::onLinkedComplete);
+        }
+
         return this;
     }
 
+    /**
+     * Cancel this promise, if it is still {@code PENDING}, rejecting any promises chained from this, and unlinking this
+     * from the promise it was chained from (if any), so it will never be run.
+     *
+     * @return True if this call cancelled this promise.
+     */
+    @Override
+    public boolean cancel() {
+        if (!super.cancel()) {
+            return false;
+        }
+
+        this.broadcast();
+
+        PromiseRunnable<?> parent = this.parent;
+
+        if (null != parent) {
+            this.parent = null;
+            parent.purge();
+        }
+
+        return true;
+    }
+
     private void broadcast() {
         if (PromiseState.PENDING == this.getState()) {
             return;
         }
 
-        while (!this.subscriberQueue.isEmpty()) {
-            // no we will not be safe, if it's in the queue it needs to be in a waiting state
-            PromiseRunnable<?> promise = this.subscriberQueue.poll();
-            // we do need to be aware that we could have concurrent access though
-            if (null != promise) {
-                promise.run();
-            }
+        // nothing subscribed, no need to lock
+        if (null == this.subscribers && SUBSCRIBERS.compareAndSet(this, null, BROADCAST)) {
+            return;
+        }
+
+        // take the whole stack, exactly one broadcast will ever see anything but BROADCAST
+        PromiseRunnable<?> head;
+
+        synchronized (this.lock) {
+            head = SUBSCRIBERS.getAndSet(this, BROADCAST);
+        }
+
+        if (BROADCAST == head) {
+            return;
+        }
+
+        // the stack is in reverse order of subscription, flip it so we run them in the order they subscribed
+        PromiseRunnable<?> promise = null;
+
+        while (null != head) {
+            PromiseRunnable<?> next = head.next;
+            head.next = promise;
+            promise = head;
+            head = next;
+        }
+
+        while (null != promise) {
+            PromiseRunnable<?> next = promise.next;
+            // unlink before running, so that the chain does not hold on to anything
+            promise.next = null;
+            promise.parent = null;
+            dispatch(promise, false);
+            promise = next;
         }
     }
 
-    private <U> PromiseRunnable<U> subscribe(PromiseRunnable<U> promise) {
-        // add this new promise as a subscriber
-        this.subscriberQueue.offer(promise);
+    /**
+     * Broadcast once the promise this is linked to resolves.
+     */
+    private void onLinkedComplete(T value, Throwable exception) {
+        this.broadcast();
+    }
 
-        // if we are actually already done, trigger another broadcast so our subscribers get notified
+    private <U> PromiseRunnable<U> subscribe(PromiseRunnable<U> promise) {
+        // if we are actually already done, the promise can be run now
         if (PromiseState.PENDING != this.getState()) {
-            this.broadcast();
+            dispatch(promise, true);
+            return promise;
         }
-        // otherwise the promise will be notified in due time, after this resolves
 
-        return promise;
+        while (true) {
+            PromiseRunnable<?> head = this.subscribers;
+
+            // if we have already broadcast, our subscribers are being notified, this one needs to be run now
+            if (BROADCAST == head) {
+                dispatch(promise, true);
+                return promise;
+            }
+
+            // push this new promise as a subscriber; it will be notified in due time, after this resolves
+            promise.next = head;
+            promise.parent = this;
+
+            if (SUBSCRIBERS.compareAndSet(this, head, promise)) {
+                // we may have been linked (and even resolved) before we were pushed, in which case we may never be
+                // broadcast, unless we listen for it, the order of these checks matters
+                if (null == head && (this.isLinked() || PromiseState.PENDING != this.getState())) {
+                    this.addListener(this::onLinkedComplete);
+                }
+
+                return promise;
+            }
+        }
+    }
+
+    /**
+     * Unlink all subscribers that are no longer {@code PENDING} (were cancelled), so they can be garbage collected.
+     * <p>
+     * Subscribers may still be pushed concurrently, but the stack cannot be taken for broadcast while this runs.
+     */
+    private void purge() {
+        synchronized (this.lock) {
+            PromiseRunnable<?> pred = null;
+            PromiseRunnable<?> node = this.subscribers;
+
+            while (null != node && BROADCAST != node) {
+                PromiseRunnable<?> next = node.next;
+
+                if (PromiseState.PENDING == node.getState()) {
+                    pred = node;
+                    node = next;
+                    continue;
+                }
+
+                if (null == pred) {
+                    // the head may only change due to a concurrent push, in which case start again
+                    if (!SUBSCRIBERS.compareAndSet(this, node, next)) {
+                        node = this.subscribers;
+                        continue;
+                    }
+                } else {
+                    pred.next = next;
+                }
+
+                node.next = null;
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * Run a promise that was subscribed to this, as dictated by it's policy.
+     *
+     * @param promise  The subscribed promise.
+     * @param resolved If this was already resolved at the time the promise subscribed.
+     */
+    private static void dispatch(PromiseRunnable<?> promise, boolean resolved) {
+        // cancelled, so there is no point running it
+        if (PromiseState.PENDING != promise.getState()) {
+            return;
+        }
+
+        ExecutionPolicy policy = promise.getPolicy();
+
+        if (ExecutionPolicy.INLINE_ON_RESOLVE == policy || (resolved && ExecutionPolicy.INLINE_WHEN_RESOLVED == policy)) {
+            promise.runInline();
+            return;
+        }
+
+        promise.run();
+    }
+
+    /**
+     * Reject a chained promise with an exception thrown within it's action, unless it was cancelled concurrently.
+     */
+    private static void rejectChained(PromiseRunnable<?> promise, Throwable exception) {
+        try {
+            promise.reject(exception);
+        } catch (MutatedStateException e) {
+            if (!promise.isCancelled()) {
+                throw e;
+            }
+        }
     }
 
     @Override
@@ -226,11 +529,11 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
 
                 promise.resolve(callback.apply(this.getValue()));
             } catch (Throwable e) {
-                promise.reject(e);
+                rejectChained(promise, e);
             }
         };
 
-        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action));
+        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action, this.getPolicy()));
     }
 
     @Override
@@ -245,11 +548,11 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
 
                 promise.resolve(callback.apply(this.getException()));
             } catch (Throwable e) {
-                promise.reject(e);
+                rejectChained(promise, e);
             }
         };
 
-        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action));
+        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action, this.getPolicy()));
     }
 
     @Override
@@ -258,11 +561,11 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
             try {
                 promise.resolve(callback.apply(this.getValue(), this.getException()));
             } catch (Throwable e) {
-                promise.reject(e);
+                rejectChained(promise, e);
             }
         };
 
-        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action));
+        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action, this.getPolicy()));
     }
 
     @Override
@@ -283,11 +586,11 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
                     promise.fulfill(null);
                 }
             } catch (Throwable e) {
-                promise.reject(e);
+                rejectChained(promise, e);
             }
         };
 
-        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action));
+        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action, this.getPolicy()));
     }
 
     @Override
@@ -308,10 +611,183 @@ public class PromiseRunnable<T> extends PromiseBase<T> {
                     promise.fulfill(null);
                 }
             } catch (Throwable e) {
-                promise.reject(e);
+                rejectChained(promise, e);
+            }
+        };
+
+        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action, this.getPolicy()));
+    }
+
+    @Override
+    public <U> Promise<U> map(Function<? super T, ? extends U> callback) {
+        Objects.requireNonNull(callback);
+
+        Consumer<PromiseRunnable<U>> action = (promise) -> {
+            try {
+                // inherit the exception if the parent (this) REJECTED, without running the callback
+                if (PromiseState.REJECTED == this.getState()) {
+                    promise.reject(this.getException());
+                    return;
+                }
+
+                promise.fulfill(callback.apply(this.getValue()));
+            } catch (Throwable e) {
+                rejectChained(promise, e);
             }
         };
 
-        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action));
+        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action, this.getPolicy()));
+    }
+
+    @Override
+    public Promise<T> exceptMap(Function<Throwable, ? extends T> callback) {
+        Objects.requireNonNull(callback);
+
+        Consumer<PromiseRunnable<T>> action = (promise) -> {
+            try {
+                // use the same value as the parent if the parent FULFILLED
+                if (PromiseState.FULFILLED == this.getState()) {
+                    promise.fulfill(this.getValue());
+                    return;
+                }
+
+                promise.fulfill(callback.apply(this.getException()));
+            } catch (Throwable e) {
+                rejectChained(promise, e);
+            }
+        };
+
+        return this.subscribe(new PromiseRunnable<>(this.getRunner(), action, this.getPolicy()));
+    }
+
+    @Override
+    public <C, U> Promise<U> then(C context, BiFunction<? super C, ? super T, ? extends Promise<? extends U>> callback) {
+        Objects.requireNonNull(callback);
+
+        return this.subscribe(this.chain(THEN_CONTEXT, context, callback));
+    }
+
+    @Override
+    public <C> Promise<T> except(C context, BiFunction<? super C, Throwable, ? extends Promise<? extends T>> callback) {
+        Objects.requireNonNull(callback);
+
+        return this.subscribe(this.chain(EXCEPT_CONTEXT, context, callback));
+    }
+
+    @Override
+    public <C, U> Promise<U> map(C context, BiFunction<? super C, ? super T, ? extends U> callback) {
+        Objects.requireNonNull(callback);
+
+        return this.subscribe(this.chain(MAP_CONTEXT, context, callback));
+    }
+
+    @Override
+    public <C> Promise<T> exceptMap(C context, BiFunction<? super C, Throwable, ? extends T> callback) {
+        Objects.requireNonNull(callback);
+
+        return this.subscribe(this.chain(EXCEPT_MAP_CONTEXT, context, callback));
+    }
+
+    /**
+     * Create a promise chained from this, that will run one of the shared context actions.
+     */
+    @SuppressWarnings("unchecked")
+    private <U> PromiseRunnable<U> chain(Consumer<PromiseRunnable<Object>> action, Object context, Object callback) {
+        PromiseRunnable<U> promise = new PromiseRunnable<>(this.getRunner(), (Consumer<PromiseRunnable<U>>) (Consumer<?>) action, this.getPolicy());
+
+        promise.source = this;
+        promise.context = context;
+        promise.callback = callback;
+
+        return promise;
+    }
+
+    private static void runThenContext(PromiseRunnable<Object> promise) {
+        PromiseRunnable<?> source = promise.source;
+        Object context = promise.context;
+        @SuppressWarnings("unchecked")
+        BiFunction<Object, Object, ? extends Promise<?>> callback = (BiFunction<Object, Object, ? extends Promise<?>>) promise.callback;
+        promise.clearContext();
+
+        try {
+            // inherit the exception if the parent REJECTED, without running the callback
+            if (PromiseState.REJECTED == source.getState()) {
+                promise.reject(source.getException());
+                return;
+            }
+
+            promise.resolve(callback.apply(context, source.getValue()));
+        } catch (Throwable e) {
+            rejectChained(promise, e);
+        }
+    }
+
+    private static void runExceptContext(PromiseRunnable<Object> promise) {
+        PromiseRunnable<?> source = promise.source;
+        Object context = promise.context;
+        @SuppressWarnings("unchecked")
+        BiFunction<Object, Throwable, ? extends Promise<?>> callback = (BiFunction<Object, Throwable, ? extends Promise<?>>) promise.callback;
+        promise.clearContext();
+
+        try {
+            // use the same value as the parent if the parent FULFILLED
+            if (PromiseState.FULFILLED == source.getState()) {
+                promise.fulfill(source.getValue());
+                return;
+            }
+
+            promise.resolve(callback.apply(context, source.getException()));
+        } catch (Throwable e) {
+            rejectChained(promise, e);
+        }
+    }
+
+    private static void runMapContext(PromiseRunnable<Object> promise) {
+        PromiseRunnable<?> source = promise.source;
+        Object context = promise.context;
+        @SuppressWarnings("unchecked")
+        BiFunction<Object, Object, Object> callback = (BiFunction<Object, Object, Object>) promise.callback;
+        promise.clearContext();
+
+        try {
+            // inherit the exception if the parent REJECTED, without running the callback
+            if (PromiseState.REJECTED == source.getState()) {
+                promise.reject(source.getException());
+                return;
+            }
+
+            promise.fulfill(callback.apply(context, source.getValue()));
+        } catch (Throwable e) {
+            rejectChained(promise, e);
+        }
+    }
+
+    private static void runExceptMapContext(PromiseRunnable<Object> promise) {
+        PromiseRunnable<?> source = promise.source;
+        Object context = promise.context;
+        @SuppressWarnings("unchecked")
+        BiFunction<Object, Throwable, Object> callback = (BiFunction<Object, Throwable, Object>) promise.callback;
+        promise.clearContext();
+
+        try {
+            // use the same value as the parent if the parent FULFILLED
+            if (PromiseState.FULFILLED == source.getState()) {
+                promise.fulfill(source.getValue());
+                return;
+            }
+
+            promise.fulfill(callback.apply(context, source.getException()));
+        } catch (Throwable e) {
+            rejectChained(promise, e);
+        }
+    }
+
+    /**
+     * Release the source, context, and callback, once read by the action, so the chain does not hold on to them.
+     */
+    private void clearContext() {
+        this.source = null;
+        this.context = null;
+        this.callback = null;
     }
 }
@@ -1,33 +1,67 @@
 package me.joeycumines.javapromises.v1;
 
+import me.joeycumines.javapromises.core.Deferred;
 import me.joeycumines.javapromises.core.Promise;
 import me.joeycumines.javapromises.core.PromiseApi;
 
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
  * A factory for creating {@link PromiseRunnable} instances.
  * <p>
- * Default promise runner (for the global instance) is {@link ExecutorRunner}.
+ * Default promise runner (for the global instance) is {@link ExecutorRunner}, and the default execution policy is
+ * {@link ExecutionPolicy#ASYNC}.
  */
 public class PromiseRunnableFactory extends PromiseApi {
     private static PromiseRunnableFactory globalInstance;
 
     private final PromiseRunner runner;
+    private final ExecutionPolicy policy;
+    private final FulfilledPromiseCache cache;
+    private final PrimitivePromiseFactory primitiveFactory;
 
     public PromiseRunnableFactory(PromiseRunner runner) {
+        this(runner, ExecutionPolicy.ASYNC);
+    }
+
+    /**
+     * @param runner The runner for all created promises.
+     * @param policy How callbacks chained from created promises will be run.
+     */
+    public PromiseRunnableFactory(PromiseRunner runner, ExecutionPolicy policy) {
         Objects.requireNonNull(runner);
+        Objects.requireNonNull(policy);
         this.runner = runner;
+        this.policy = policy;
+        this.cache = new FulfilledPromiseCache((value) -> new PromiseRunnable<>(runner, policy, value, null));
+
+        Executor executor = toExecutor(runner);
+        this.primitiveFactory = null == executor ? null : new PrimitivePromiseFactory(this, executor, policy);
+    }
+
+    /**
+     * Only supported if the runner can run plain tasks, that is, it is an {@link Executor} (like
+     * {@link TrampolineRunner}), or an {@link ExecutorRunner}.
+     *
+     * @return A factory for primitive promises, which will run callbacks using the runner, and the policy of this.
+     * @throws UnsupportedOperationException If the runner can only run promises.
+     */
+    public PrimitivePromiseFactory getPrimitiveFactory() throws UnsupportedOperationException {
+        if (null == this.primitiveFactory) {
+            throw new UnsupportedOperationException("the runner must be an Executor or an ExecutorRunner");
+        }
+
+        return this.primitiveFactory;
     }
 
     @Override
     public <T> Promise<T> create(BiConsumer<Consumer<? super T>, Consumer<Throwable>> action) {
         Objects.requireNonNull(action);
 
-        return (new PromiseRunnable<T>())
-                .setRunner(this.runner)
+        return (new PromiseRunnable<T>(this.runner, null, this.policy))
                 .setAction((promise) -> {
                     try {
                         action.accept(promise::fulfill, promise::reject);
@@ -40,28 +74,57 @@ public class PromiseRunnableFactory extends PromiseApi {
 
     @Override
     public <T> Promise<T> reject(Throwable reason) {
-        return (new PromiseRunnable<T>())
-                .setRunner(this.runner)
-                .setRun()
-                .reject(reason);
+        Objects.requireNonNull(reason);
+
+        return new PromiseRunnable<>(this.runner, this.policy, null, reason);
     }
 
+    /**
+     * Fulfilling with a common constant (null, booleans, small integers, or an empty list) will return a shared
+     * instance.
+     */
     @Override
     public <T> Promise<T> fulfill(T value) {
-        return (new PromiseRunnable<T>())
-                .setRunner(this.runner)
-                .setRun()
-                .fulfill(value);
+        Promise<T> promise = this.cache.get(value);
+
+        if (null != promise) {
+            return promise;
+        }
+
+        return new PromiseRunnable<>(this.runner, this.policy, value, null);
+    }
+
+    /**
+     * The returned promise is marked as run, and may be resolved directly.
+     */
+    @Override
+    public <T> Deferred<T> defer() {
+        return (new PromiseRunnable<T>(this.runner, null, this.policy))
+                .setRun();
     }
 
     @Override
     public <T> Promise<T> wrap(Promise<? extends T> promise) {
-        return (new PromiseRunnable<T>())
-                .setRunner(this.runner)
+        return (new PromiseRunnable<T>(this.runner, null, this.policy))
                 .setRun()
                 .resolve(promise);
     }
 
+    /**
+     * @return The runner as an executor, the executor it uses, or null if it can only run promises.
+     */
+    private static Executor toExecutor(PromiseRunner runner) {
+        if (runner instanceof Executor) {
+            return (Executor) runner;
+        }
+
+        if (runner instanceof ExecutorRunner) {
+            return ((ExecutorRunner) runner).getExecutor();
+        }
+
+        return null;
+    }
+
     /**
      * @return A global PromiseRunnableFactory (thread safe).
      */
@@ -25,41 +25,45 @@ import java.util.function.Function;
  * This class is provided more as a way to enable inter-operation with other libraries, then as a recommended way to
  * use promises.
  * <p>
+ * Chained promises are created using the async methods of {@link CompletionStage}, unless the
+ * {@link ExecutionPolicy} allows them to be run inline, in which case the non-async methods are used.
+ * <p>
  * The thread-safe implementation of state is implemented by {@link PromiseBase}.
  */
 public class PromiseStage<T> extends PromiseBase<T> {
     protected final CompletionStage<T> stage;
     protected final Executor executor;
+    protected final ExecutionPolicy policy;
 
     public PromiseStage(CompletionStage<T> stage) {
         this(stage, null);
     }
 
     public PromiseStage(CompletionStage<T> stage, Executor executor) {
-        this(stage, executor, null);
+        this(stage, executor, ExecutionPolicy.ASYNC);
     }
 
     /**
-     * @param stage        The completion stage to base this promise off.
-     * @param executor     The executor if desired, will be inherited by all chained promises.
-     * @param resultSource ONLY FOR INTERNAL USE.
+     * @param stage    The completion stage to base this promise off.
+     * @param executor The executor if desired, will be inherited by all chained promises.
+     * @param policy   How chained promises will be run, will be inherited by all chained promises.
      */
-    private PromiseStage(CompletionStage<T> stage, Executor executor, Promise<? extends T> resultSource) {
+    public PromiseStage(CompletionStage<T> stage, Executor executor, ExecutionPolicy policy) {
         super();
 
         Objects.requireNonNull(stage);
+        Objects.requireNonNull(policy);
 
         this.executor = executor;
-
-        // handle resolving another promise as the result source THIS REQUIRES STAGE TO BE COMPLETE, OR LOGIC WILL BORK
-        if (null != resultSource) {
-            this.stage = stage;
-            this.resolve(resultSource);
-            return;
-        }
+        this.policy = policy;
 
         // this means we should always be resolved BEFORE we trigger any callbacks
         this.stage = stage.whenComplete((value, throwable) -> {
+            // we may have been cancelled, before the stage completed
+            if (this.isCancelled()) {
+                return;
+            }
+
             if (PromiseState.PENDING != this.getState()) {
                 throw new MutatedStateException(this, this.getState(), null == throwable ? PromiseState.FULFILLED : PromiseState.REJECTED);
             }
@@ -79,6 +83,69 @@ public class PromiseStage<T> extends PromiseBase<T> {
         });
     }
 
+    /**
+     * Create a promise that is already resolved, without mirroring, or waiting on, the stage.
+     *
+     * @param stage     A stage ALREADY COMPLETED with the same value or exception.
+     * @param executor  The executor if desired, will be inherited by all chained promises.
+     * @param policy    How chained promises will be run, will be inherited by all chained promises.
+     * @param value     The value to fulfill with, ignored if exception is not null.
+     * @param exception The exception to reject with, or null to fulfill.
+     */
+    PromiseStage(CompletableFuture<T> stage, Executor executor, ExecutionPolicy policy, T value, Throwable exception) {
+        super(value, exception);
+
+        Objects.requireNonNull(stage);
+        Objects.requireNonNull(policy);
+
+        this.stage = stage;
+        this.executor = executor;
+        this.policy = policy;
+    }
+
+    /**
+     * @param value    The value to fulfill with.
+     * @param executor The executor if desired, will be inherited by all chained promises.
+     * @param policy   How chained promises will be run, will be inherited by all chained promises.
+     * @param <T>      The type of the promise.
+     * @return A new {@code FULFILLED} promise.
+     */
+    public static <T> PromiseStage<T> fulfilled(T value, Executor executor, ExecutionPolicy policy) {
+        return new PromiseStage<>(CompletableFuture.completedFuture(value), executor, policy, value, null);
+    }
+
+    /**
+     * Create a {@code FULFILLED} promise that is safe to share, for {@link FulfilledPromiseCache}.
+     * <p>
+     * A {@link CompletableFuture} can be overwritten (obtruded), so the stage chained from is never handed out, instead
+     * {@link #getStage()} returns a new stage, completed with the same value, each call.
+     *
+     * @param value    The value to fulfill with.
+     * @param executor The executor if desired, will be inherited by all chained promises.
+     * @param policy   How chained promises will be run, will be inherited by all chained promises.
+     * @param <T>      The type of the promise.
+     * @return A new {@code FULFILLED} promise.
+     */
+    static <T> PromiseStage<T> fulfilledShared(T value, Executor executor, ExecutionPolicy policy) {
+        return new SharedStage<>(value, executor, policy);
+    }
+
+    /**
+     * @param exception The exception to reject with.
+     * @param executor  The executor if desired, will be inherited by all chained promises.
+     * @param policy    How chained promises will be run, will be inherited by all chained promises.
+     * @param <T>       The type of the promise.
+     * @return A new {@code REJECTED} promise.
+     */
+    public static <T> PromiseStage<T> rejected(Throwable exception, Executor executor, ExecutionPolicy policy) {
+        Objects.requireNonNull(exception);
+
+        CompletableFuture<T> stage = new CompletableFuture<>();
+        stage.completeExceptionally(exception);
+
+        return new PromiseStage<>(stage, executor, policy, null, exception);
+    }
+
     public CompletionStage<T> getStage() {
         return this.stage;
     }
@@ -87,39 +154,40 @@ public class PromiseStage<T> extends PromiseBase<T> {
         return this.executor;
     }
 
+    public ExecutionPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Cancel this promise, if it is still {@code PENDING}, and cancel the stage (as a {@link CompletableFuture}, if
+     * supported), which will cancel all chained promises.
+     * <p>
+     * The stage this promise was created from will not be cancelled, only the stage used to chain from this.
+     *
+     * @return True if this call cancelled this promise.
+     */
     @Override
-    public <U> Promise<U> then(Function<? super T, ? extends Promise<? extends U>> callback) {
-        // thenComposeAsync(Function<? super T,? extends CompletionStage<U>> fn, Executor executor)
-        // inner returns a CompletableFuture - triggered after inner promise
-        CompletableFuture<U> future = new CompletableFuture<>();
-
-        Function<? super T, ? extends CompletionStage<U>> fn = (value) -> {
-            Promise<? extends U> promise = callback.apply(value);
-
-            if (null == promise || PromiseState.FULFILLED == promise.getState()) {
-                future.complete(null == promise ? null : promise.thenSync());
-            } else if (PromiseState.REJECTED == promise.getState()) {
-                future.completeExceptionally(promise.exceptSync());
-            } else {
-                promise.always((r, e) -> {
-                    if (null != e) {
-                        future.completeExceptionally(e);
-                        return null;
-                    }
+    public boolean cancel() {
+        if (!super.cancel()) {
+            return false;
+        }
 
-                    future.complete(r);
-                    return null;
-                });
-            }
+        try {
+            this.getStage().toCompletableFuture().cancel(false);
+        } catch (UnsupportedOperationException ignored) {
+            // not supported by the stage, chained promises will still follow it
+        }
 
-            return future;
-        };
+        return true;
+    }
 
-        if (null == this.getExecutor()) {
-            return new PromiseStage<>(this.getStage().thenComposeAsync(fn));
-        }
+    @Override
+    public <U> Promise<U> then(Function<? super T, ? extends Promise<? extends U>> callback) {
+        // thenComposeAsync(Function<? super T,? extends CompletionStage<U>> fn, Executor executor)
+        // inner returns the promise as a stage, listened to, unless it is a stage already
+        Function<? super T, ? extends CompletionStage<U>> fn = (value) -> PromiseFuture.toStage(callback.apply(value));
 
-        return new PromiseStage<>(this.getStage().thenComposeAsync(fn, this.getExecutor()), this.getExecutor());
+        return this.compose(this.stage, fn);
     }
 
     @Override
@@ -137,11 +205,7 @@ public class PromiseStage<T> extends PromiseBase<T> {
             return result.getValue();
         };
 
-        if (null == this.getExecutor()) {
-            return new PromiseStage<>(this.getStage().thenApplyAsync(fn));
-        }
-
-        return new PromiseStage<>(this.getStage().thenApplyAsync(fn, this.getExecutor()), this.getExecutor());
+        return this.apply(this.stage, fn);
     }
 
     @Override
@@ -152,7 +216,7 @@ public class PromiseStage<T> extends PromiseBase<T> {
 
         Holder<Throwable> exception = new Holder<>();
 
-        CompletionStage<T> stage = this.getStage()
+        CompletionStage<T> stage = this.stage
                 .exceptionally((e) -> {
                     if (e instanceof CompletionException) {
                         CompletionException a = (CompletionException) e;
@@ -164,49 +228,25 @@ public class PromiseStage<T> extends PromiseBase<T> {
                     return null;
                 });
 
-        CompletableFuture<T> future = new CompletableFuture<>();
-
         Function<? super T, CompletionStage<T>> fn = (v) -> {
             Throwable ex = exception.getValue();
 
             if (null == ex) {
                 // it was not an exceptional completion
-                return this.getStage();
-            }
-
-            Promise<? extends T> promise = callback.apply(ex);
-
-            if (null == promise || PromiseState.FULFILLED == promise.getState()) {
-                future.complete(null == promise ? null : promise.thenSync());
-            } else if (PromiseState.REJECTED == promise.getState()) {
-                future.completeExceptionally(promise.exceptSync());
-            } else {
-                promise.always((r, e) -> {
-                    if (null != e) {
-                        future.completeExceptionally(e);
-                        return null;
-                    }
-
-                    future.complete(r);
-                    return null;
-                });
+                return this.stage;
             }
 
-            return future;
+            return PromiseFuture.toStage(callback.apply(ex));
         };
 
-        if (null == this.getExecutor()) {
-            return new PromiseStage<>(stage.thenComposeAsync(fn));
-        }
-
-        return new PromiseStage<>(stage.thenComposeAsync(fn, this.getExecutor()), this.getExecutor());
+        return this.compose(stage, fn);
     }
 
     @Override
     public Promise<T> except(BiConsumer<Throwable, Consumer<? super T>> callback) {
         Holder<Throwable> exception = new Holder<>();
 
-        CompletionStage<T> stage = this.getStage()
+        CompletionStage<T> stage = this.stage
                 .exceptionally((e) -> {
                     if (e instanceof CompletionException) {
                         CompletionException a = (CompletionException) e;
@@ -236,11 +276,7 @@ public class PromiseStage<T> extends PromiseBase<T> {
             return result.getValue();
         };
 
-        if (null == this.getExecutor()) {
-            return new PromiseStage<>(stage.thenApplyAsync(fn));
-        }
-
-        return new PromiseStage<>(stage.thenApplyAsync(fn, this.getExecutor()), this.getExecutor());
+        return this.apply(stage, fn);
     }
 
     @Override
@@ -250,7 +286,7 @@ public class PromiseStage<T> extends PromiseBase<T> {
         // thenComposeAsync(Function<? super T,? extends CompletionStage<U>> fn, Executor executor)
         Holder<Throwable> exception = new Holder<>();
 
-        CompletionStage<T> stage = this.getStage()
+        CompletionStage<T> stage = this.stage
                 .exceptionally((e) -> {
                     if (e instanceof CompletionException) {
                         CompletionException a = (CompletionException) e;
@@ -262,67 +298,163 @@ public class PromiseStage<T> extends PromiseBase<T> {
                     return null;
                 });
 
-        CompletableFuture<U> future = new CompletableFuture<>();
+        Function<? super T, CompletionStage<U>> fn = (value) -> PromiseFuture.toStage(callback.apply(value, exception.getValue()));
 
-        Function<? super T, CompletionStage<U>> fn = (value) -> {
-            Throwable ex = exception.getValue();
+        return this.compose(stage, fn);
+    }
 
-            Promise<? extends U> promise = callback.apply(value, ex);
-
-            if (null == promise || PromiseState.FULFILLED == promise.getState()) {
-                future.complete(null == promise ? null : promise.thenSync());
-            } else if (PromiseState.REJECTED == promise.getState()) {
-                future.completeExceptionally(promise.exceptSync());
-            } else {
-                promise.always((r, e) -> {
-                    if (null != e) {
-                        future.completeExceptionally(e);
-                        return null;
-                    }
+    @Override
+    public <U> Promise<U> map(Function<? super T, ? extends U> callback) {
+        Objects.requireNonNull(callback);
 
-                    future.complete(r);
-                    return null;
-                });
+        return this.apply(this.stage, callback);
+    }
+
+    @Override
+    public Promise<T> exceptMap(Function<Throwable, ? extends T> callback) {
+        Objects.requireNonNull(callback);
+
+        BiFunction<? super T, Throwable, ? extends T> fn = (value, exception) -> {
+            if (null == exception) {
+                return value;
+            }
+
+            if (exception instanceof CompletionException) {
+                exception = exception.getCause();
             }
 
-            return future;
+            return callback.apply(exception);
         };
 
+        return this.handle(this.stage, fn);
+    }
+
+    /**
+     * Should chained promises be run inline, as dictated by the policy.
+     */
+    private boolean isInline() {
+        return ExecutionPolicy.INLINE_ON_RESOLVE == this.getPolicy() ||
+                (ExecutionPolicy.INLINE_WHEN_RESOLVED == this.getPolicy() && PromiseState.PENDING != this.getState());
+    }
+
+    /**
+     * Chain a new promise from a stage derived from this, using thenCompose.
+     */
+    private <V, U> PromiseStage<U> compose(CompletionStage<V> stage, Function<? super V, ? extends CompletionStage<U>> fn) {
+        if (this.isInline()) {
+            return new PromiseStage<>(stage.thenCompose(fn), this.getExecutor(), this.getPolicy());
+        }
+
+        if (null == this.getExecutor()) {
+            return new PromiseStage<>(stage.thenComposeAsync(fn), null, this.getPolicy());
+        }
+
+        return new PromiseStage<>(stage.thenComposeAsync(fn, this.getExecutor()), this.getExecutor(), this.getPolicy());
+    }
+
+    /**
+     * Chain a new promise from a stage derived from this, using thenApply.
+     */
+    private <V, U> PromiseStage<U> apply(CompletionStage<V> stage, Function<? super V, ? extends U> fn) {
+        if (this.isInline()) {
+            return new PromiseStage<>(stage.thenApply(fn), this.getExecutor(), this.getPolicy());
+        }
+
         if (null == this.getExecutor()) {
-            return new PromiseStage<>(stage.thenComposeAsync(fn));
+            return new PromiseStage<>(stage.thenApplyAsync(fn), null, this.getPolicy());
         }
 
-        return new PromiseStage<>(stage.thenComposeAsync(fn, this.getExecutor()), this.getExecutor());
+        return new PromiseStage<>(stage.thenApplyAsync(fn, this.getExecutor()), this.getExecutor(), this.getPolicy());
     }
 
     /**
-     * Use a <b>completed</b> {@link CompletionStage} as a base, create a new {@link PromiseStage}, that will resolve
-     * with the same state and value as the provided {@link Promise}.
+     * Chain a new promise from a stage derived from this, using handle.
+     */
+    private <V, U> PromiseStage<U> handle(CompletionStage<V> stage, BiFunction<? super V, Throwable, ? extends U> fn) {
+        if (this.isInline()) {
+            return new PromiseStage<>(stage.handle(fn), this.getExecutor(), this.getPolicy());
+        }
+
+        if (null == this.getExecutor()) {
+            return new PromiseStage<>(stage.handleAsync(fn), null, this.getPolicy());
+        }
+
+        return new PromiseStage<>(stage.handleAsync(fn, this.getExecutor()), this.getExecutor(), this.getPolicy());
+    }
+
+    /**
+     * Use a {@link CompletionStage} as a base, create a new {@link PromiseStage}, that will resolve with the same state
+     * and value as the provided {@link Promise}, once the stage has completed successfully.
      * <p>
      * A null stage or promise will result in a {@link NullPointerException}.
      * <p>
-     * If the stage provided is not completed, and will never complete, then this thread will hang.
+     * This never blocks, if the stage or promise are still pending the returned promise will resolve once they are
+     * not. If the stage is a completed {@link CompletableFuture}, and the promise is already resolved, the returned
+     * promise will be too, built directly from the result.
      *
-     * @param stage    A SUCCESSFULLY COMPLETED completion stage.
+     * @param stage    A completion stage, that should complete successfully.
      * @param executor The executor to create the new {@link PromiseStage} with. Can be null.
      * @param promise  The promise to wrap.
      * @param <T>      The type of the returned promise.
      * @return A new promise that will resolve the same as the provided one that is an instance of {@link PromiseStage}.
      */
     public static <T> Promise<T> wrap(CompletionStage<T> stage, Executor executor, Promise<? extends T> promise) {
+        return wrap(stage, executor, ExecutionPolicy.ASYNC, promise);
+    }
+
+    /**
+     * @param stage    A completion stage, that should complete successfully.
+     * @param executor The executor to create the new {@link PromiseStage} with. Can be null.
+     * @param policy   The execution policy to create the new {@link PromiseStage} with.
+     * @param promise  The promise to wrap.
+     * @param <T>      The type of the returned promise.
+     * @return A new promise that will resolve the same as the provided one that is an instance of {@link PromiseStage}.
+     * @see #wrap(CompletionStage, Executor, Promise)
+     */
+    public static <T> Promise<T> wrap(CompletionStage<T> stage, Executor executor, ExecutionPolicy policy, Promise<? extends T> promise) {
         Objects.requireNonNull(stage);
+        Objects.requireNonNull(policy);
         Objects.requireNonNull(promise);
 
-        // if we don't sync with the stage it will be less obvious to debug, then clauses will never run instead
-        PromiseStage<T> base = new PromiseStage<>(stage, executor);
-        base.sync();
+        // exit early with immediate resolution if we can, without deriving any stages
+        if (PromiseState.PENDING != promise.getState() && isCompletedNormally(stage)) {
+            if (PromiseState.REJECTED == promise.getState()) {
+                return rejected(promise.exceptSync(), executor, policy);
+            }
+
+            return fulfilled(promise.thenSync(), executor, policy);
+        }
+
+        // compose keeps the implementation of the stage, the promise is only listened to
+        return new PromiseStage<>(stage.thenCompose((ignored) -> PromiseFuture.toStage(promise)), executor, policy);
+    }
+
+    /**
+     * @return True if the stage is a {@link CompletableFuture}, that has completed successfully.
+     */
+    private static boolean isCompletedNormally(CompletionStage<?> stage) {
+        if (!(stage instanceof CompletableFuture)) {
+            return false;
+        }
+
+        CompletableFuture<?> future = (CompletableFuture<?>) stage;
+
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
 
-        // exit early with immediate resolution if we can
-        if (PromiseState.PENDING != promise.getState()) {
-            return new PromiseStage<>(stage, executor, promise);
+    private static final class SharedStage<T> extends PromiseStage<T> {
+        private final T value;
+
+        private SharedStage(T value, Executor executor, ExecutionPolicy policy) {
+            super(CompletableFuture.completedFuture(value), executor, policy, value, null);
+
+            this.value = value;
         }
 
-        return base.then((v) -> promise);
+        @Override
+        public CompletionStage<T> getStage() {
+            return CompletableFuture.completedFuture(this.value);
+        }
     }
 
     class Holder<U> {
@@ -3,6 +3,7 @@ package me.joeycumines.javapromises.v1;
 import me.joeycumines.javapromises.core.*;
 
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -10,16 +11,44 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 public class PromiseStageFactory extends PromiseApi {
+    /**
+     * Runs tasks using {@link CompletableFuture#runAsync(Runnable)}, for when no executor was provided.
+     */
+    private static final Executor ASYNC_EXECUTOR = CompletableFuture::runAsync;
+
     private static PromiseStageFactory globalInstance;
 
     private final Executor executor;
+    private final ExecutionPolicy policy;
+    private final FulfilledPromiseCache cache;
+    private final PrimitivePromiseFactory primitiveFactory;
 
     public PromiseStageFactory() {
-        this.executor = null;
+        this(null);
     }
 
     public PromiseStageFactory(Executor executor) {
+        this(executor, ExecutionPolicy.ASYNC);
+    }
+
+    /**
+     * @param executor The executor to create promises with, can be null.
+     * @param policy   How chained promises will be run.
+     */
+    public PromiseStageFactory(Executor executor, ExecutionPolicy policy) {
+        Objects.requireNonNull(policy);
+
         this.executor = executor;
+        this.policy = policy;
+        this.cache = new FulfilledPromiseCache((value) -> PromiseStage.fulfilledShared(value, executor, policy));
+        this.primitiveFactory = new PrimitivePromiseFactory(this, null == executor ? ASYNC_EXECUTOR : executor, policy);
+    }
+
+    /**
+     * @return A factory for primitive promises, which will run callbacks using the executor, and the policy of this.
+     */
+    public PrimitivePromiseFactory getPrimitiveFactory() {
+        return this.primitiveFactory;
     }
 
     @Override
@@ -27,7 +56,7 @@ public class PromiseStageFactory extends PromiseApi {
         Objects.requireNonNull(action);
         CompletableFuture<T> future = new CompletableFuture<>();
 
-        Promise<T> promise = new PromiseStage<>(future, this.executor);
+        Promise<T> promise = new PromiseStage<>(future, this.executor, this.policy);
 
         Runnable task = () -> {
             try {
@@ -73,24 +102,35 @@ public class PromiseStageFactory extends PromiseApi {
 
     @Override
     public <T> Promise<T> reject(Throwable reason) {
-        Objects.requireNonNull(reason);
-        CompletableFuture<T> future = new CompletableFuture<>();
-        future.completeExceptionally(reason);
-        Promise<T> promise = new PromiseStage<>(future, this.executor);
-        promise.sync();
-        return promise;
+        return PromiseStage.rejected(reason, this.executor, this.policy);
     }
 
+    /**
+     * Fulfilling with a common constant (null, booleans, small integers, or an empty list) will return a shared
+     * instance.
+     */
     @Override
     public <T> Promise<T> fulfill(T value) {
-        Promise<T> promise = new PromiseStage<>(CompletableFuture.completedFuture(value), this.executor);
-        promise.sync();
-        return promise;
+        Promise<T> promise = this.cache.get(value);
+
+        if (null != promise) {
+            return promise;
+        }
+
+        return PromiseStage.fulfilled(value, this.executor, this.policy);
     }
 
     @Override
     public <T> Promise<T> wrap(Promise<? extends T> promise) {
-        return PromiseStage.wrap(CompletableFuture.completedFuture(null), this.executor, promise);
+        return PromiseStage.wrap(CompletableFuture.completedFuture(null), this.executor, this.policy, promise);
+    }
+
+    /**
+     * The returned promise is backed by a {@link CompletableFuture}, which is completed directly.
+     */
+    @Override
+    public <T> Deferred<T> defer() {
+        return new FutureDeferred<>(new CompletableFuture<>(), this.executor, this.policy);
     }
 
     /**
@@ -108,4 +148,79 @@ public class PromiseStageFactory extends PromiseApi {
 
         return globalInstance;
     }
+
+    /**
+     * Resolves a promise by completing the future it was created from, a single atomic operation.
+     * <p>
+     * Cancelling the promise cancels that same future, so it can only ever be resolved once.
+     */
+    private static final class FutureDeferred<T> implements Deferred<T> {
+        private final CompletableFuture<T> future;
+        private final PromiseStage<T> promise;
+
+        private FutureDeferred(CompletableFuture<T> future, Executor executor, ExecutionPolicy policy) {
+            this.future = future;
+            this.promise = new DeferredStage<>(future, executor, policy);
+        }
+
+        @Override
+        public Promise<T> getPromise() {
+            return this.promise;
+        }
+
+        @Override
+        public Promise<T> fulfill(T value) throws SelfResolutionException, MutatedStateException {
+            if (value == this.promise) {
+                throw new SelfResolutionException(this.promise);
+            }
+
+            if (!this.future.complete(value)) {
+                throw new MutatedStateException(this.promise, this.getResolvedState(), PromiseState.FULFILLED);
+            }
+
+            return this.promise;
+        }
+
+        @Override
+        public Promise<T> reject(Throwable reason) throws NullPointerException, MutatedStateException {
+            Objects.requireNonNull(reason);
+
+            if (!this.future.completeExceptionally(reason)) {
+                throw new MutatedStateException(this.promise, this.getResolvedState(), PromiseState.REJECTED);
+            }
+
+            return this.promise;
+        }
+
+        /**
+         * The state of the already completed future, the promise may not have caught up with it yet.
+         */
+        private PromiseState getResolvedState() {
+            return this.future.isCompletedExceptionally() ? PromiseState.REJECTED : PromiseState.FULFILLED;
+        }
+    }
+
+    /**
+     * A promise that is cancelled by cancelling the future it was created from, rather than only the chained stage.
+     */
+    private static final class DeferredStage<T> extends PromiseStage<T> {
+        private final CompletableFuture<T> future;
+
+        private DeferredStage(CompletableFuture<T> future, Executor executor, ExecutionPolicy policy) {
+            super(future, executor, policy);
+
+            this.future = future;
+        }
+
+        /**
+         * Complete the future this was created from with a {@link CancellationException}, which rejects this, and all
+         * chained promises, in turn.
+         *
+         * @return True if this call cancelled this promise.
+         */
+        @Override
+        public boolean cancel() {
+            return this.future.completeExceptionally(new CancellationException());
+        }
+    }
 }
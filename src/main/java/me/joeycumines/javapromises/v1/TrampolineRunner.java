@@ -0,0 +1,159 @@
+package me.joeycumines.javapromises.v1;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Execute {@link PromiseRunnable} instances (promise callbacks, etc) synchronously, on the calling thread, without
+ * risking a {@link StackOverflowError} on long chains.
+ * <p>
+ * Running a promise inline recurses once per link in the chain (run, action, resolve, broadcast, run...), so this
+ * runner only recurses up to a configurable max depth, past which the work is deferred to a queue local to the current
+ * thread, which is drained in a loop by the outermost call. This means that a call to {@link #execute(Runnable)} may
+ * return before the task has run, but the task is guaranteed to run before the outermost call returns.
+ * <p>
+ * If any task throws, the remaining queued tasks are still run, and the first exception is re-thrown by the outermost
+ * call, with any others added as suppressed.
+ * <p>
+ * This is also an {@link Executor}, and is used by {@link PromiseRunnable#runInline()}.
+ */
+public class TrampolineRunner implements PromiseRunner, Executor {
+    public static final int DEFAULT_MAX_DEPTH = 256;
+
+    private static final Consumer<Runnable> RUN = Runnable::run;
+
+    private static TrampolineRunner globalInstance;
+
+    private final int maxDepth;
+
+    private final ThreadLocal<Frame> frame;
+
+    public TrampolineRunner() {
+        this(DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * @param maxDepth The max number of nested tasks that will be run directly, must be at least 1.
+     * @throws IllegalArgumentException If maxDepth was less than 1.
+     */
+    public TrampolineRunner(int maxDepth) throws IllegalArgumentException {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("the max depth must be at least 1");
+        }
+
+        this.maxDepth = maxDepth;
+        this.frame = ThreadLocal.withInitial(Frame::new);
+    }
+
+    /**
+     * @return A global TrampolineRunner (thread safe), using {@link #DEFAULT_MAX_DEPTH}.
+     */
+    public static TrampolineRunner getInstance() {
+        // double checked locking
+        if (null == globalInstance) {
+            synchronized (TrampolineRunner.class) {
+                if (null == globalInstance) {
+                    globalInstance = new TrampolineRunner();
+                }
+            }
+        }
+
+        return globalInstance;
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    @Override
+    public <T> void runPromise(PromiseRunnable<T> promise) {
+        this.execute(() -> promise.getAction().accept(promise));
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task);
+
+        this.execute(RUN, task);
+    }
+
+    /**
+     * The same as {@link #execute(Runnable)}, for an action that takes an argument, which only allocates a task if it
+     * needs to be queued. Used by {@link PromiseRunnable#runInline()}.
+     *
+     * @param action   The action to run.
+     * @param argument The argument to run the action with.
+     * @param <A>      The type of the argument.
+     */
+    <A> void execute(Consumer<? super A> action, A argument) {
+        Objects.requireNonNull(action);
+
+        Frame frame = this.frame.get();
+
+        // too deep, the outermost call will run it, a plain task from execute(Runnable) is queued as is
+        if (frame.depth >= this.maxDepth) {
+            frame.queue.addLast(RUN == action ? (Runnable) argument : () -> action.accept(argument));
+            return;
+        }
+
+        // nested, but still within bounds
+        if (0 != frame.depth) {
+            frame.depth++;
+            try {
+                action.accept(argument);
+            } finally {
+                frame.depth--;
+            }
+            return;
+        }
+
+        // outermost, responsible for draining the queue
+        Throwable error = null;
+        frame.depth = 1;
+        try {
+            try {
+                action.accept(argument);
+            } catch (Throwable e) {
+                error = e;
+            }
+
+            Runnable task;
+
+            while (null != (task = frame.queue.pollFirst())) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    if (null == error) {
+                        error = e;
+                    } else {
+                        error.addSuppressed(e);
+                    }
+                }
+            }
+        } finally {
+            frame.depth = 0;
+        }
+
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+
+        if (null != error) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    /**
+     * The trampoline state for a single thread.
+     */
+    private static final class Frame {
+        private int depth = 0;
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    }
+}
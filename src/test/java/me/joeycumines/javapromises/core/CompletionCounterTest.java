@@ -0,0 +1,82 @@
+package me.joeycumines.javapromises.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CompletionCounterTest {
+    private static final int[] SIZES = {1, 2, 63, 64, 65, CompletionCounter.STRIPED_THRESHOLD - 1,
+            CompletionCounter.STRIPED_THRESHOLD, 4097, 64 * 64 * 64 + 1};
+
+    @Test
+    public void testCountDownLast() {
+        for (int size : SIZES) {
+            CompletionCounter counter = CompletionCounter.create(size);
+
+            // count down out of order, only the last should win
+            for (int x = size - 1; x > 0; x--) {
+                assertFalse(counter.countDown(x));
+            }
+
+            assertTrue(counter.countDown(0));
+            assertFalse(counter.tryFinish());
+        }
+    }
+
+    @Test
+    public void testTryFinish() {
+        for (int size : SIZES) {
+            CompletionCounter counter = CompletionCounter.create(size);
+
+            for (int x = 1; x < size; x++) {
+                assertFalse(counter.countDown(x));
+            }
+
+            assertTrue(counter.tryFinish());
+            assertFalse(counter.tryFinish());
+            assertFalse(counter.countDown(0));
+        }
+    }
+
+    @Test
+    public void testCountDownConcurrent() throws InterruptedException {
+        for (int size : SIZES) {
+            CompletionCounter counter = CompletionCounter.create(size);
+            AtomicInteger winners = new AtomicInteger(0);
+            List<Thread> threadList = new ArrayList<>();
+
+            for (int y = 0; y < 4; y++) {
+                int offset = y;
+                Thread thread = new Thread(() -> {
+                    for (int x = offset; x < size; x += 4) {
+                        if (counter.countDown(x)) {
+                            winners.incrementAndGet();
+                        }
+                    }
+                });
+                thread.start();
+                threadList.add(thread);
+            }
+
+            for (Thread thread : threadList) {
+                thread.join();
+            }
+
+            assertEquals(1, winners.get());
+        }
+    }
+
+    @Test
+    public void testCreateInvalid() {
+        try {
+            CompletionCounter.create(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -379,6 +380,57 @@ public abstract class PromiseApiTest {
         assertEquals(PromiseState.REJECTED, promise.getState());
     }
 
+    @Test
+    public void testResolveDeepChain() {
+        int size = 100000;
+        List<Deferred<Object>> deferredList = new ArrayList<>();
+
+        for (int x = 0; x < size; x++) {
+            deferredList.add(this.getApi().defer());
+        }
+
+        // everything but the last is fulfilled with the next
+        for (int x = 0; x < size - 1; x++) {
+            deferredList.get(x).fulfill(deferredList.get(x + 1).getPromise());
+        }
+
+        Promise<String> promise = this.getApi().resolve(deferredList.get(0).getPromise(), String.class);
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        deferredList.get(size - 1).fulfill("HELLO!");
+
+        assertEquals("HELLO!", promise.thenSync());
+
+        // and now it is all resolved, it will resolve synchronously
+        promise = this.getApi().resolve(deferredList.get(0).getPromise(), String.class);
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals("HELLO!", promise.thenSync());
+    }
+
+    @Test
+    public void testResolveDeepChainStepped() {
+        int size = 10000;
+        List<Deferred<Object>> deferredList = new ArrayList<>();
+
+        for (int x = 0; x < size; x++) {
+            deferredList.add(this.getApi().defer());
+        }
+
+        Promise<String> promise = this.getApi().resolve(deferredList.get(0).getPromise(), String.class);
+
+        // each is resolved only after the last, so we have to wait on every one
+        for (int x = 0; x < size - 1; x++) {
+            deferredList.get(x).fulfill(deferredList.get(x + 1).getPromise());
+        }
+
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        deferredList.get(size - 1).fulfill(5);
+
+        // the cast fails
+        assertTrue(promise.exceptSync() instanceof ClassCastException);
+    }
+
     @Test
     public void testResolveAll() {
         PromiseApi api = spy(this.getApi());
@@ -709,6 +761,450 @@ public abstract class PromiseApiTest {
         }
     }
 
+    @Test
+    public void testEachLazyIterable() {
+        AtomicInteger taken = new AtomicInteger(0);
+        AtomicInteger running = new AtomicInteger(0);
+
+        // not a collection, and only ever produces the next value on demand
+        Iterable<Integer> lazy = () -> new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return taken.get() < 5;
+            }
+
+            @Override
+            public Integer next() {
+                // the previous action must have resolved before we are asked for more
+                assertEquals(0, running.get());
+                return taken.incrementAndGet();
+            }
+        };
+
+        Promise<List<Integer>> promise = this.getApi().each(lazy, (value) -> {
+            running.incrementAndGet();
+            return this.getApi().attempt(() -> {
+                running.decrementAndGet();
+                return this.getApi().fulfill(value * 2);
+            });
+        });
+
+        assertEquals(Arrays.asList(2, 4, 6, 8, 10), promise.thenSync());
+        assertEquals(5, taken.get());
+    }
+
+    @Test
+    public void testForEach() {
+        List<Integer> seen = new ArrayList<>();
+
+        Promise<Void> promise = this.getApi().forEach(Arrays.asList(1, 2, 3, 4), (value) -> {
+            seen.add(value);
+            return this.getApi().fulfill(value);
+        });
+
+        assertNull(promise.thenSync());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(Arrays.asList(1, 2, 3, 4), seen);
+    }
+
+    @Test
+    public void testForEachEndless() {
+        AtomicInteger taken = new AtomicInteger(0);
+        RuntimeException e = new RuntimeException();
+
+        // far more iterations than would fit on the stack, if each step recursed
+        Iterable<Integer> endless = () -> new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return taken.incrementAndGet();
+            }
+        };
+
+        Promise<Void> promise = this.getApi().forEach(endless, (value) -> {
+            if (50000 == value) {
+                throw e;
+            }
+
+            return this.getApi().fulfill(value);
+        });
+
+        assertEquals(e, promise.exceptSync());
+        assertEquals(50000, taken.get());
+    }
+
+    @Test
+    public void testForEachNullPointerException() {
+        try {
+            this.getApi().forEach(null, (v) -> null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            this.getApi().forEach(new ArrayList<>(), null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+    }
+
+    @Test
+    public void testWhileAsync() {
+        List<Integer> seen = new ArrayList<>();
+
+        Promise<Void> promise = this.getApi().whileAsync(() -> seen.size() < 5, () -> {
+            seen.add(seen.size());
+
+            // mix already resolved, pending, and null results
+            if (0 == seen.size() % 2) {
+                return this.getApi().attempt(() -> this.getApi().fulfill(seen.size()));
+            }
+
+            return 3 == seen.size() ? null : this.getApi().fulfill(seen.size());
+        });
+
+        assertNull(promise.thenSync());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), seen);
+    }
+
+    @Test
+    public void testWhileAsyncNeverRuns() {
+        Promise<Void> promise = this.getApi().whileAsync(() -> false, () -> {
+            fail();
+            return null;
+        });
+
+        assertNull(promise.thenSync());
+    }
+
+    @Test
+    public void testWhileAsyncReject() {
+        AtomicInteger count = new AtomicInteger(0);
+        RuntimeException e = new RuntimeException();
+
+        Promise<Void> promise = this.getApi().whileAsync(() -> true, () -> {
+            if (3 == count.incrementAndGet()) {
+                return this.getApi().attempt(() -> this.getApi().reject(e));
+            }
+
+            return this.getApi().fulfill(null);
+        });
+
+        assertEquals(e, promise.exceptSync());
+        assertEquals(3, count.get());
+    }
+
+    @Test
+    public void testWhileAsyncConditionThrows() {
+        RuntimeException e = new RuntimeException();
+
+        Promise<Void> promise = this.getApi().whileAsync(() -> {
+            throw e;
+        }, () -> null);
+
+        assertEquals(e, promise.exceptSync());
+    }
+
+    @Test
+    public void testWhileAsyncCancel() throws InterruptedException {
+        Deferred<Object> blocker = this.getApi().defer();
+        AtomicInteger count = new AtomicInteger(0);
+
+        Promise<Void> promise = this.getApi().whileAsync(() -> true, () -> {
+            count.incrementAndGet();
+            return blocker.getPromise();
+        });
+
+        if (!promise.cancel()) {
+            // not supported by this implementation
+            blocker.fulfill(null);
+            return;
+        }
+
+        blocker.fulfill(null);
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        assertTrue(promise.isCancelled());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testIterate() {
+        // async when odd, sync when even
+        Promise<Integer> promise = this.getApi().iterate(0, (value) -> 0 == value % 2 ?
+                this.getApi().fulfill(value + 1) :
+                this.getApi().attempt(() -> this.getApi().fulfill(value + 1)), (value) -> value >= 10);
+
+        assertEquals(10, (int) promise.thenSync());
+    }
+
+    @Test
+    public void testIterateSeedDone() {
+        Promise<String> promise = this.getApi().iterate("seed", (value) -> {
+            fail();
+            return null;
+        }, (value) -> true);
+
+        assertEquals("seed", promise.thenSync());
+    }
+
+    @Test
+    public void testIterateManySync() {
+        // far more iterations than would fit on the stack, if each step recursed
+        Promise<Integer> promise = this.getApi().iterate(0, (value) -> this.getApi().fulfill(value + 1), (value) -> 1000000 == value);
+
+        assertEquals(1000000, (int) promise.thenSync());
+    }
+
+    @Test
+    public void testIterateDeferred() throws InterruptedException {
+        int size = 10000;
+        List<Deferred<Integer>> deferredList = new ArrayList<>();
+
+        for (int x = 0; x < size; x++) {
+            deferredList.add(this.getApi().defer());
+        }
+
+        Promise<Integer> promise = this.getApi().iterate(0, (value) -> deferredList.get(value).getPromise(), (value) -> size == value);
+
+        // resolve from another thread, in order, each may or may not be waited on
+        Thread thread = new Thread(() -> {
+            for (int x = 0; x < size; x++) {
+                deferredList.get(x).fulfill(x + 1);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertEquals(size, (int) promise.thenSync());
+    }
+
+    @Test
+    public void testRepeat() {
+        List<Integer> seen = new ArrayList<>();
+
+        Promise<Void> promise = this.getApi().repeat(5, (index) -> {
+            seen.add(index);
+            return 0 == index % 2 ? null : this.getApi().attempt(() -> this.getApi().fulfill(index));
+        });
+
+        assertNull(promise.thenSync());
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), seen);
+
+        assertNull(this.getApi().repeat(0, (index) -> {
+            fail();
+            return null;
+        }).thenSync());
+    }
+
+    @Test
+    public void testRepeatIllegalArgumentException() {
+        try {
+            this.getApi().repeat(-1, (index) -> null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    @Test
+    public void testLoopNullPointerException() {
+        try {
+            this.getApi().whileAsync(null, () -> null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            this.getApi().whileAsync(() -> false, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            this.getApi().iterate(null, null, (value) -> true);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            this.getApi().iterate(null, (value) -> null, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            this.getApi().repeat(1, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+    }
+
+    @Test
+    public void testMapConcurrentOrdered() {
+        List<Integer> intList = new ArrayList<>();
+
+        for (int x = 0; x < 20; x++) {
+            intList.add(x);
+        }
+
+        AtomicInteger current = new AtomicInteger(0);
+        AtomicInteger max = new AtomicInteger(0);
+
+        Promise<List<Integer>> promise = this.getApi().mapConcurrent(intList, 3, (value) -> {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+
+            return this.getApi().create((fulfill, reject) -> {
+                try {
+                    // the later values finish first
+                    TimeUnit.MILLISECONDS.sleep(20 - value);
+                } catch (InterruptedException ignored) {
+                }
+
+                current.decrementAndGet();
+                fulfill.accept(value * 2);
+            });
+        });
+
+        List<Integer> result = promise.thenSync();
+        assertNull(promise.exceptSync());
+
+        assertEquals(20, result.size());
+
+        for (int x = 0; x < 20; x++) {
+            assertEquals(x * 2, result.get(x).intValue());
+        }
+
+        assertTrue(max.get() <= 3);
+        assertTrue(max.get() >= 1);
+    }
+
+    @Test
+    public void testMapConcurrentUnordered() {
+        List<Deferred<Integer>> deferredList = new ArrayList<>();
+
+        for (int x = 0; x < 3; x++) {
+            deferredList.add(this.getApi().defer());
+        }
+
+        Promise<List<Integer>> promise = this.getApi().mapConcurrent(deferredList, 3, false, Deferred::getPromise);
+
+        deferredList.get(2).fulfill(2);
+        deferredList.get(0).fulfill(0);
+        deferredList.get(1).fulfill(1);
+
+        List<Integer> result = promise.thenSync();
+
+        // they are all started at once, but may be observed in a different order
+        assertEquals(3, result.size());
+        assertTrue(result.containsAll(Arrays.asList(0, 1, 2)));
+    }
+
+    @Test
+    public void testMapConcurrentStreaming() {
+        AtomicInteger taken = new AtomicInteger(0);
+        AtomicInteger started = new AtomicInteger(0);
+        RuntimeException e = new RuntimeException();
+
+        // an endless iterator, that must only be consumed as actions complete
+        Iterable<Integer> endless = () -> new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return taken.incrementAndGet();
+            }
+        };
+
+        Promise<List<Object>> promise = this.getApi().mapConcurrent(endless, 2, (value) -> {
+            started.incrementAndGet();
+
+            if (10 == value) {
+                return this.getApi().reject(e);
+            }
+
+            return this.getApi().fulfill(value);
+        });
+
+        assertEquals(e, promise.exceptSync());
+
+        // nothing more is taken once we rejected
+        try {
+            TimeUnit.MILLISECONDS.sleep(50);
+            int count = taken.get();
+            TimeUnit.MILLISECONDS.sleep(50);
+            assertEquals(count, taken.get());
+        } catch (InterruptedException ignored) {
+        }
+
+        assertTrue(started.get() <= taken.get());
+    }
+
+    @Test
+    public void testMapConcurrentRejectThrown() {
+        RuntimeException e = new RuntimeException();
+
+        Promise<List<Integer>> promise = this.getApi().mapConcurrent(Arrays.asList(1, 2, 3), 2, (value) -> {
+            if (2 == value) {
+                throw e;
+            }
+
+            return null;
+        });
+
+        assertEquals(e, promise.exceptSync());
+    }
+
+    @Test
+    public void testMapConcurrentEmpty() {
+        Promise<List<Integer>> promise = this.getApi().mapConcurrent(new ArrayList<Integer>(), 4, (value) -> {
+            fail();
+            return null;
+        });
+
+        assertEquals(0, promise.thenSync().size());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+    }
+
+    @Test
+    public void testMapConcurrentInvalid() {
+        try {
+            this.getApi().mapConcurrent(null, 1, (v) -> null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            this.getApi().mapConcurrent(new ArrayList<Object>(), 1, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            this.getApi().mapConcurrent(new ArrayList<Object>(), 0, (v) -> null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
     @Test
     public void testResolveAllNullPointerExceptionLeft() {
         try {
@@ -907,6 +1403,23 @@ public abstract class PromiseApiTest {
         assertEquals(5, result.get(1));
     }
 
+    @Test
+    public void testAllResultMutable() {
+        Deferred<Object> deferred = this.getApi().defer();
+
+        List<Object> resolved = this.getApi().<Object>all(this.getApi().fulfill(1), this.getApi().fulfill(2)).thenSync();
+        Promise<List<Object>> promise = this.getApi().all(deferred.getPromise(), this.getApi().fulfill(2));
+        deferred.fulfill(1);
+        List<Object> pending = promise.thenSync();
+
+        for (List<Object> result : Arrays.asList(resolved, pending)) {
+            assertTrue(result instanceof ArrayList);
+            result.add(3);
+            result.remove(0);
+            assertEquals(Arrays.asList(2, 3), result);
+        }
+    }
+
     @Test
     public void testAllNullPromise() {
         List<Promise<Object>> promiseList = new ArrayList<>();
@@ -968,6 +1481,95 @@ public abstract class PromiseApiTest {
         assertEquals(true, result.get(2));
     }
 
+    @Test
+    public void testAllFulfillMany() {
+        List<Deferred<Integer>> deferredList = new ArrayList<>();
+        List<Promise<Integer>> promiseList = new ArrayList<>();
+
+        for (int x = 0; x < 10000; x++) {
+            Deferred<Integer> deferred = this.getApi().defer();
+            deferredList.add(deferred);
+            promiseList.add(deferred.getPromise());
+        }
+
+        Promise<List<Integer>> promise = this.getApi().all(promiseList);
+
+        // resolve them in reverse order
+        for (int x = deferredList.size() - 1; x >= 0; x--) {
+            assertEquals(PromiseState.PENDING, promise.getState());
+            deferredList.get(x).fulfill(x);
+        }
+
+        List<Integer> result = promise.thenSync();
+
+        assertEquals(10000, result.size());
+
+        for (int x = 0; x < result.size(); x++) {
+            assertEquals(Integer.valueOf(x), result.get(x));
+        }
+    }
+
+    @Test
+    public void testAnyRejectMany() throws InterruptedException {
+        List<Deferred<Integer>> deferredList = new ArrayList<>();
+        List<Promise<Integer>> promiseList = new ArrayList<>();
+
+        for (int x = 0; x < 10000; x++) {
+            Deferred<Integer> deferred = this.getApi().defer();
+            deferredList.add(deferred);
+            promiseList.add(deferred.getPromise());
+        }
+
+        Promise<Integer> promise = this.getApi().any(promiseList);
+
+        // reject them from multiple threads
+        List<Thread> threadList = new ArrayList<>();
+
+        for (int y = 0; y < 4; y++) {
+            int offset = y;
+            Thread thread = new Thread(() -> {
+                for (int x = offset; x < deferredList.size(); x += 4) {
+                    deferredList.get(x).reject(new IndexOutOfBoundsException(Integer.toString(x)));
+                }
+            });
+            thread.start();
+            threadList.add(thread);
+        }
+
+        for (Thread thread : threadList) {
+            thread.join();
+        }
+
+        Throwable exception = promise.exceptSync();
+
+        assertTrue(exception instanceof AggregateException);
+
+        List<Throwable> exceptionList = ((AggregateException) exception).getExceptionList();
+
+        assertEquals(10000, exceptionList.size());
+
+        for (int x = 0; x < exceptionList.size(); x++) {
+            assertEquals(Integer.toString(x), exceptionList.get(x).getMessage());
+        }
+    }
+
+    @Test
+    public void testAllIterable() {
+        Deferred<Object> deferred = this.getApi().defer();
+        List<Promise<Object>> promiseList = Arrays.asList(this.getApi().fulfill("first"), deferred.getPromise());
+
+        // not a collection
+        Iterable<Promise<Object>> iterable = promiseList::iterator;
+
+        Promise<List<Object>> promise = this.getApi().all(iterable);
+
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        deferred.fulfill("second");
+
+        assertEquals(Arrays.asList("first", "second"), promise.thenSync());
+    }
+
     @Test
     public void testAllFulfillPartial() {
         BlockingPromise<Object> blocker = new BlockingPromise<>(this.getApi());
@@ -1352,6 +1954,57 @@ public abstract class PromiseApiTest {
         assertTrue(future.isCompletedExceptionally());
     }
 
+    @Test
+    public void testFromCompletionStageNull() {
+        try {
+            this.getApi().fromCompletionStage(null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+    }
+
+    @Test
+    public void testFromCompletionStageFulfilled() {
+        Promise<Integer> promise = this.getApi().fromCompletionStage(CompletableFuture.completedFuture(5142));
+        assertEquals(5142, promise.thenSync().intValue());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+    }
+
+    @Test
+    public void testFromCompletionStageRejected() {
+        Throwable throwable = new Throwable();
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+
+        assertEquals(throwable, this.getApi().fromCompletionStage(future).exceptSync());
+
+        // dependant stages complete with a wrapped exception
+        assertEquals(throwable, this.getApi().fromCompletionStage(future.thenApply((r) -> r)).exceptSync());
+    }
+
+    @Test
+    public void testFromCompletionStagePending() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        Promise<Number> promise = this.getApi().fromCompletionStage(future);
+
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        future.complete(5142);
+
+        assertEquals(5142, promise.thenSync().intValue());
+    }
+
+    @Test
+    public void testCompletionStageRoundTrip() {
+        BlockingPromise<Integer> blocker = new BlockingPromise<>(this.getApi());
+        Promise<Integer> promise = this.getApi().fromCompletionStage(this.getApi().toCompletableFuture(blocker.getPromise()));
+
+        blocker.fulfill(5142);
+
+        assertEquals(5142, promise.thenSync().intValue());
+    }
+
     @Test
     public void testAnyVarargs() {
         Promise<Integer> promise;
@@ -1420,4 +2073,79 @@ public abstract class PromiseApiTest {
 
     abstract class PromiseDummy implements Promise {
     }
+
+    @Test
+    public void testRaceCancelRemaining() {
+        // cancellation is optional
+        boolean cancellable = this.getApi().defer().getPromise().cancel();
+
+        Deferred<Object> winner = this.getApi().defer();
+        Deferred<Object> loser = this.getApi().defer();
+        Object value = new Object();
+
+        Promise<Object> promise = this.getApi().race(Arrays.asList(winner.getPromise(), loser.getPromise()), true);
+
+        winner.fulfill(value);
+
+        assertEquals(value, promise.thenSync());
+        assertEquals(cancellable ? PromiseState.REJECTED : PromiseState.PENDING, loser.getPromise().getState());
+        assertEquals(cancellable, loser.getPromise().isCancelled());
+    }
+
+    @Test
+    public void testRaceNoCancelRemaining() {
+        Deferred<Object> winner = this.getApi().defer();
+        Deferred<Object> loser = this.getApi().defer();
+        Throwable exception = new Throwable();
+
+        Promise<Object> promise = this.getApi().race(Arrays.asList(winner.getPromise(), loser.getPromise()), false);
+
+        winner.reject(exception);
+
+        assertEquals(exception, promise.exceptSync());
+        assertEquals(PromiseState.PENDING, loser.getPromise().getState());
+
+        // the loser still works
+        loser.fulfill(null);
+        assertEquals(PromiseState.FULFILLED, loser.getPromise().getState());
+    }
+
+    @Test
+    public void testAllCancelRemaining() {
+        boolean cancellable = this.getApi().defer().getPromise().cancel();
+
+        Deferred<Object> b1 = this.getApi().defer();
+        Deferred<Object> b2 = this.getApi().defer();
+        Deferred<Object> b3 = this.getApi().defer();
+        Throwable exception = new Throwable();
+
+        Promise<List<Object>> promise = this.getApi().all(Arrays.asList(b1.getPromise(), b2.getPromise(), b3.getPromise()), true);
+
+        b1.fulfill(null);
+        b2.reject(exception);
+
+        assertEquals(exception, promise.exceptSync());
+        assertEquals(PromiseState.FULFILLED, b1.getPromise().getState());
+        assertEquals(cancellable, b3.getPromise().isCancelled());
+    }
+
+    @Test
+    public void testAnyCancelRemaining() {
+        boolean cancellable = this.getApi().defer().getPromise().cancel();
+
+        Deferred<Object> b1 = this.getApi().defer();
+        Deferred<Object> b2 = this.getApi().defer();
+        Deferred<Object> b3 = this.getApi().defer();
+        Object value = new Object();
+
+        Promise<Object> promise = this.getApi().any(Arrays.asList(b1.getPromise(), b2.getPromise(), b3.getPromise()), true);
+
+        b1.reject(new Throwable());
+        b2.fulfill(value);
+
+        assertEquals(value, promise.thenSync());
+        assertEquals(PromiseState.REJECTED, b1.getPromise().getState());
+        assertFalse(b1.getPromise().isCancelled());
+        assertEquals(cancellable, b3.getPromise().isCancelled());
+    }
 }
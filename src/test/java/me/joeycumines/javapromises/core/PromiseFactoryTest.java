@@ -3,8 +3,11 @@ package me.joeycumines.javapromises.core;
 import org.junit.Test;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -672,6 +675,106 @@ public abstract class PromiseFactoryTest {
         assertEquals(null, promise.exceptSync());
     }
 
+    /**
+     * <b>Test {@link PromiseFactory#createSync(BiConsumer)}</b>
+     * <p>
+     * The action runs on the calling thread, before returning, and the promise is resolved if the action resolved it.
+     */
+    @Test
+    public void testCreateSyncRunsOnCallingThread() {
+        Thread thread = Thread.currentThread();
+        AtomicInteger counter = new AtomicInteger(0);
+
+        Promise<Integer> promise = this.getFactory().createSync((fulfill, reject) -> {
+            assertSame(thread, Thread.currentThread());
+            counter.incrementAndGet();
+            fulfill.accept(42);
+        });
+
+        assertEquals(1, counter.get());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(42, promise.thenSync().intValue());
+
+        Throwable exception = new Throwable();
+        promise = this.getFactory().createSync((fulfill, reject) -> reject.accept(exception));
+
+        assertEquals(PromiseState.REJECTED, promise.getState());
+        assertEquals(exception, promise.exceptSync());
+    }
+
+    /**
+     * <b>Test {@link PromiseFactory#createSync(BiConsumer)}</b>
+     * <p>
+     * The promise is pending if the action did not resolve it, and can be resolved later, from another thread.
+     */
+    @Test
+    public void testCreateSyncResolveLater() {
+        AtomicReference<Consumer<? super Integer>> later = new AtomicReference<>();
+
+        Promise<Integer> promise = this.getFactory().createSync((fulfill, reject) -> later.set(fulfill));
+
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        new Thread(() -> later.get().accept(42)).start();
+
+        assertEquals(42, promise.thenSync().intValue());
+    }
+
+    /**
+     * <b>Test {@link PromiseFactory#createSync(BiConsumer)}</b>
+     * <p>
+     * Thrown exceptions reject, unless the promise was already resolved, and subsequent calls must throw.
+     */
+    @Test
+    public void testCreateSyncThrow() {
+        RuntimeException exception = new RuntimeException();
+
+        Promise<Integer> promise = this.getFactory().createSync((fulfill, reject) -> {
+            throw exception;
+        });
+
+        assertEquals(PromiseState.REJECTED, promise.getState());
+        assertEquals(exception, promise.exceptSync());
+
+        AtomicInteger counter = new AtomicInteger(0);
+
+        promise = this.getFactory().createSync((fulfill, reject) -> {
+            fulfill.accept(42);
+
+            try {
+                reject.accept(exception);
+            } catch (MutatedStateException e) {
+                counter.incrementAndGet();
+            }
+
+            throw exception;
+        });
+
+        assertEquals(1, counter.get());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(42, promise.thenSync().intValue());
+
+        promise = this.getFactory().createSync((fulfill, reject) -> reject.accept(null));
+
+        assertEquals(PromiseState.REJECTED, promise.getState());
+        assertTrue(promise.exceptSync() instanceof NullPointerException);
+    }
+
+    /**
+     * <b>Test {@link PromiseFactory#createSync(BiConsumer)}</b>
+     * <p>
+     * A null action parameter will cause a {@link NullPointerException} to be thrown.
+     */
+    @Test
+    public void testCreateSyncNoActionThrows() {
+        try {
+            this.getFactory().createSync(null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+    }
+
     /**
      * <b>Test {@link PromiseFactory#reject(Throwable)}</b>
      * <p>
@@ -1086,4 +1189,164 @@ public abstract class PromiseFactoryTest {
             assertNotNull(e);
         }
     }
+
+    @Test
+    public void testBlockingPromiseRejectNull() {
+        BlockingPromise<Object> blocker = new BlockingPromise<>(this.getFactory());
+
+        try {
+            blocker.reject(null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        Object value = new Object();
+        blocker.fulfill(value);
+        assertEquals(value, blocker.getPromise().thenSync());
+    }
+
+    @Test
+    public void testBlockingPromiseTimedAndInterruptible() throws InterruptedException, TimeoutException {
+        BlockingPromise<Object> blocker = new BlockingPromise<>(this.getFactory());
+        Object value = new Object();
+        assertSame(blocker.getPromise(), blocker.fulfill(value, 5, TimeUnit.SECONDS));
+        assertEquals(value, blocker.getPromise().thenSync());
+
+        blocker = new BlockingPromise<>(this.getFactory());
+        Throwable reason = new Throwable();
+        assertSame(blocker.getPromise(), blocker.reject(reason, 5, TimeUnit.SECONDS));
+        assertEquals(reason, blocker.getPromise().exceptSync());
+
+        blocker = new BlockingPromise<>(this.getFactory());
+        assertSame(blocker.getPromise(), blocker.interruptibleFulfill(value));
+        assertEquals(value, blocker.getPromise().thenSync());
+
+        blocker = new BlockingPromise<>(this.getFactory());
+        assertSame(blocker.getPromise(), blocker.interruptibleReject(reason));
+        assertEquals(reason, blocker.getPromise().exceptSync());
+    }
+
+    @Test
+    public void testBlockingPromiseStalledFactory() throws InterruptedException {
+        // the action is never run, so the promise can never be resolved
+        BlockingPromise<Object> blocker = new BlockingPromise<>(mock(PromiseFactory.class));
+
+        try {
+            blocker.fulfill(null, 50, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (TimeoutException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            blocker.reject(new Throwable(), 0, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (TimeoutException e) {
+            assertNotNull(e);
+        }
+
+        Thread.currentThread().interrupt();
+
+        try {
+            blocker.interruptibleFulfill(null);
+            fail();
+        } catch (InterruptedException e) {
+            assertFalse(Thread.interrupted());
+        }
+
+        Thread.currentThread().interrupt();
+
+        try {
+            blocker.interruptibleReject(new Throwable());
+            fail();
+        } catch (InterruptedException e) {
+            assertFalse(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void testDeferPending() {
+        Deferred<Object> deferred = this.getFactory().defer();
+        assertNotNull(deferred.getPromise());
+        assertEquals(PromiseState.PENDING, deferred.getPromise().getState());
+        assertSame(deferred.getPromise(), deferred.getPromise());
+    }
+
+    @Test
+    public void testDeferFulfill() {
+        Deferred<Object> deferred = this.getFactory().defer();
+        Object value = new Object();
+        Promise<Object> chained = deferred.getPromise().then((r, fulfill) -> fulfill.accept(r));
+
+        assertSame(deferred.getPromise(), deferred.fulfill(value));
+        assertEquals(PromiseState.FULFILLED, deferred.getPromise().getState());
+        assertEquals(value, deferred.getPromise().thenSync());
+        assertEquals(value, chained.thenSync());
+
+        try {
+            deferred.fulfill(value);
+            fail();
+        } catch (MutatedStateException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            deferred.reject(new Throwable());
+            fail();
+        } catch (MutatedStateException e) {
+            assertNotNull(e);
+        }
+
+        assertEquals(value, deferred.getPromise().thenSync());
+    }
+
+    @Test
+    public void testDeferReject() {
+        Deferred<Object> deferred = this.getFactory().defer();
+        Throwable value = new Throwable();
+
+        try {
+            deferred.reject(null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        assertEquals(PromiseState.PENDING, deferred.getPromise().getState());
+
+        assertSame(deferred.getPromise(), deferred.reject(value));
+        assertEquals(PromiseState.REJECTED, deferred.getPromise().getState());
+        assertEquals(value, deferred.getPromise().exceptSync());
+
+        try {
+            deferred.fulfill(null);
+            fail();
+        } catch (MutatedStateException e) {
+            assertNotNull(e);
+        }
+    }
+
+    @Test
+    public void testDeferSelfResolutionException() {
+        Deferred<Object> deferred = this.getFactory().defer();
+
+        try {
+            deferred.fulfill(deferred.getPromise());
+            fail("promises should throw a self resolution exception if they try to resolve themselves.");
+        } catch (SelfResolutionException e) {
+            assertNotNull(e);
+        }
+    }
+
+    @Test
+    public void testDeferFromOtherThread() throws InterruptedException {
+        Deferred<Integer> deferred = this.getFactory().defer();
+
+        Thread thread = new Thread(() -> deferred.fulfill(5));
+        thread.start();
+
+        assertEquals(Integer.valueOf(5), deferred.getPromise().thenSync());
+        thread.join();
+    }
 }
@@ -2,6 +2,10 @@ package me.joeycumines.javapromises.core;
 
 import org.junit.Test;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
@@ -626,4 +630,264 @@ public abstract class PromiseTest {
         assertNull(slave.get().exceptSync());
         assertEquals(PromiseState.FULFILLED, slave.get().getState());
     }
+
+    @Test
+    public void testSyncTimeout() throws InterruptedException {
+        Promise<Object> promise = this.getFactory().create((fulfill, reject) -> {
+        });
+
+        long start = System.nanoTime();
+
+        try {
+            promise.sync(50, TimeUnit.MILLISECONDS);
+            fail();
+        } catch (TimeoutException e) {
+            assertNotNull(e);
+        }
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        try {
+            promise.thenSync(Duration.ZERO);
+            fail();
+        } catch (TimeoutException e) {
+            assertNotNull(e);
+        }
+
+        assertEquals(PromiseState.PENDING, promise.getState());
+    }
+
+    @Test
+    public void testSyncTimedResolves() throws InterruptedException, TimeoutException {
+        Object value = new Object();
+        Throwable exception = new Throwable();
+
+        BlockingPromise<Object> blocker = new BlockingPromise<>(this.getFactory());
+        Promise<Object> fulfilled = blocker.getPromise().then((r) -> this.getFactory().fulfill(value));
+        Promise<Object> rejected = blocker.getPromise().then((r) -> this.getFactory().reject(exception));
+
+        blocker.fulfill(null);
+
+        assertEquals(value, fulfilled.thenSync(10, TimeUnit.SECONDS));
+        assertNull(fulfilled.exceptSync(Duration.ofSeconds(10)));
+        assertNull(rejected.thenSync(Duration.ofSeconds(10)));
+        assertEquals(exception, rejected.exceptSync(10, TimeUnit.SECONDS));
+
+        // already resolved, so it will not time out even with no timeout
+        fulfilled.sync(0, TimeUnit.NANOSECONDS);
+        rejected.sync(Duration.ofSeconds(-1));
+
+        // the max duration should not overflow
+        assertEquals(value, fulfilled.thenSync(ChronoUnit.FOREVER.getDuration()));
+    }
+
+    @Test
+    public void testInterruptibleSync() throws InterruptedException {
+        Promise<Object> promise = this.getFactory().create((fulfill, reject) -> {
+        });
+
+        Thread.currentThread().interrupt();
+
+        try {
+            promise.interruptibleSync();
+            fail();
+        } catch (InterruptedException e) {
+            assertNotNull(e);
+        }
+
+        assertFalse(Thread.interrupted());
+
+        Thread current = Thread.currentThread();
+        Thread interrupter = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            current.interrupt();
+        });
+        interrupter.start();
+
+        try {
+            promise.interruptibleThenSync();
+            fail();
+        } catch (InterruptedException e) {
+            assertNotNull(e);
+        }
+
+        interrupter.join();
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        Object value = new Object();
+        Promise<Object> fulfilled = this.getFactory().fulfill(value);
+        assertEquals(value, fulfilled.interruptibleThenSync());
+        assertNull(fulfilled.interruptibleExceptSync());
+    }
+
+    @Test
+    public void testMapFulfilled() {
+        Promise<String> promise = this.getFactory().fulfill(20)
+                .map((r) -> r + 1)
+                .map((r) -> r * 2)
+                .map(Object::toString);
+        assertEquals("42", promise.thenSync());
+        assertEquals(null, promise.exceptSync());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertNull(this.getFactory().fulfill(1).map((r) -> null).thenSync());
+    }
+
+    @Test
+    public void testMapNoCallback() {
+        RuntimeException value = new RuntimeException();
+        Promise<Object> promise = this.getFactory().reject(value)
+                .map((r) -> {
+                    fail();
+                    return r;
+                });
+        assertEquals(null, promise.thenSync());
+        assertEquals(value, promise.exceptSync());
+        assertEquals(PromiseState.REJECTED, promise.getState());
+    }
+
+    @Test
+    public void testMapThrowException() {
+        RuntimeException value = new RuntimeException();
+        Promise<Object> promise = this.getFactory().fulfill(null)
+                .map((r) -> {
+                    throw value;
+                });
+        assertEquals(null, promise.thenSync());
+        assertEquals(value, promise.exceptSync());
+        assertEquals(PromiseState.REJECTED, promise.getState());
+    }
+
+    @Test
+    public void testExceptMapRejected() {
+        Throwable value = new Throwable();
+        Promise<Object> promise = this.getFactory().reject(value)
+                .exceptMap((e) -> e);
+        assertEquals(value, promise.thenSync());
+        assertEquals(null, promise.exceptSync());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+
+        RuntimeException thrown = new RuntimeException();
+        Promise<Object> rethrown = this.getFactory().reject(value)
+                .exceptMap((e) -> {
+                    throw thrown;
+                });
+        assertEquals(thrown, rethrown.exceptSync());
+    }
+
+    @Test
+    public void testExceptMapNoCallback() {
+        Object value = new Object();
+        Promise<Object> promise = this.getFactory().fulfill(value)
+                .exceptMap((e) -> {
+                    fail();
+                    return null;
+                });
+        assertEquals(value, promise.thenSync());
+        assertEquals(null, promise.exceptSync());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+    }
+
+    @Test
+    public void testMapNull() {
+        Promise<Object> promise = this.getFactory().fulfill(null);
+
+        try {
+            promise.map(null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            promise.exceptMap(null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+    }
+
+    private static Integer add(Integer context, Integer value) {
+        return context + value;
+    }
+
+    @Test
+    public void testContextFulfilled() {
+        Promise<Integer> promise = this.getFactory().fulfill(20)
+                .map(1, PromiseTest::add)
+                .then(this.getFactory(), (factory, r) -> factory.fulfill(r * 2))
+                .except(null, (context, e) -> {
+                    fail();
+                    return null;
+                })
+                .exceptMap(null, (context, e) -> {
+                    fail();
+                    return null;
+                });
+        assertEquals(42, promise.thenSync().intValue());
+        assertEquals(null, promise.exceptSync());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+    }
+
+    @Test
+    public void testContextRejected() {
+        Throwable value = new Throwable();
+        Object context = new Object();
+
+        Promise<Object> promise = this.getFactory().reject(value)
+                .map(null, (c, r) -> {
+                    fail();
+                    return r;
+                })
+                .then(null, (c, r) -> {
+                    fail();
+                    return null;
+                });
+        assertEquals(value, promise.exceptSync());
+        assertEquals(PromiseState.REJECTED, promise.getState());
+
+        Promise<Object> recovered = promise.except(this.getFactory(), (factory, e) -> factory.fulfill(e));
+        assertEquals(value, recovered.thenSync());
+
+        recovered = promise.exceptMap(context, (c, e) -> c);
+        assertEquals(context, recovered.thenSync());
+    }
+
+    @Test
+    public void testContextThrowException() {
+        RuntimeException value = new RuntimeException();
+        Promise<Object> promise = this.getFactory().fulfill(null)
+                .map(null, (c, r) -> {
+                    throw value;
+                });
+        assertEquals(value, promise.exceptSync());
+        assertEquals(PromiseState.REJECTED, promise.getState());
+
+        promise = this.getFactory().fulfill(null)
+                .then(null, (c, r) -> {
+                    throw value;
+                });
+        assertEquals(value, promise.exceptSync());
+    }
+
+    @Test
+    public void testContextNull() {
+        Promise<Object> promise = this.getFactory().fulfill(null);
+
+        try {
+            promise.then(null, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+
+        try {
+            promise.map(null, null);
+            fail();
+        } catch (NullPointerException e) {
+            assertNotNull(e);
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.PromiseFactory;
+import me.joeycumines.javapromises.core.PromiseFactoryTest;
+import me.joeycumines.javapromises.core.PromiseState;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Extend this class to test a {@link PromiseFactory} implementation, that shares fulfilled promises using
+ * {@link FulfilledPromiseCache}.
+ */
+public abstract class FulfilledPromiseCacheTest extends PromiseFactoryTest {
+    @Test
+    public void testFulfillConstantsShared() {
+        PromiseFactory factory = this.getFactory();
+
+        assertSame(factory.fulfill(null), factory.fulfill(null));
+        assertSame(factory.fulfill(true), factory.fulfill(Boolean.TRUE));
+        assertSame(factory.fulfill(false), factory.fulfill(Boolean.FALSE));
+        assertSame(factory.fulfill(-128), factory.fulfill(-128));
+        assertSame(factory.fulfill(127), factory.fulfill(127));
+        assertSame(factory.fulfill(Collections.emptyList()), factory.fulfill(Collections.emptyList()));
+        assertNotSame(factory.fulfill(null), factory.fulfill(false));
+
+        assertEquals(Boolean.TRUE, factory.fulfill(true).thenSync());
+        assertEquals(PromiseState.FULFILLED, factory.fulfill(null).getState());
+        assertNull(factory.fulfill(null).thenSync());
+        assertFalse(factory.fulfill(null).cancel());
+    }
+
+    @Test
+    public void testFulfillNonConstantsNotShared() {
+        PromiseFactory factory = this.getFactory();
+
+        assertNotSame(factory.fulfill(128), factory.fulfill(128));
+        assertNotSame(factory.fulfill(new ArrayList<>()), factory.fulfill(new ArrayList<>()));
+        assertNotSame(factory.fulfill(new Object()), factory.fulfill(new Object()));
+
+        // equal but not identical to a cached integer, must resolve with the exact instance provided
+        Integer value = distinctInteger(1);
+        assertNotSame(Integer.valueOf(1), value);
+        assertSame(value, factory.fulfill(value).thenSync());
+    }
+
+    /**
+     * @return A new {@link Integer} instance, never one cached by {@link Integer#valueOf(int)}.
+     */
+    @SuppressWarnings({"deprecation", "removal"})
+    private static Integer distinctInteger(int value) {
+        //noinspection UnnecessaryBoxing
+        return new Integer(value);
+    }
+}
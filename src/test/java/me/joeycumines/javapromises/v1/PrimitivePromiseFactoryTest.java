@@ -0,0 +1,235 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class PrimitivePromiseFactoryTest {
+    /**
+     * Run a test against primitive factories backed by each implementation.
+     */
+    private void forEachFactory(Consumer<PrimitivePromiseFactory> test) {
+        test.accept(PromiseRunnableFactory.getInstance().getPrimitiveFactory());
+        test.accept(PromiseStageFactory.getInstance().getPrimitiveFactory());
+        test.accept(new PromiseStageFactory().getPrimitiveFactory());
+        test.accept(new PromiseRunnableFactory(new TrampolineRunner(), ExecutionPolicy.INLINE_ON_RESOLVE).getPrimitiveFactory());
+        test.accept(new PromiseRunnableFactory(new ExecutorRunner((task) -> new Thread(task).start())).getPrimitiveFactory());
+    }
+
+    @Test
+    public void testPromiseOnlyRunnerUnsupported() {
+        PromiseRunnableFactory factory = new PromiseRunnableFactory(new PromiseRunner() {
+            @Override
+            public <T> void runPromise(PromiseRunnable<T> promise) {
+                new Thread(() -> promise.getAction().accept(promise)).start();
+            }
+        });
+
+        try {
+            factory.getPrimitiveFactory();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            assertNotNull(e);
+        }
+
+        // the factory itself is still usable
+        assertEquals(1, (int) factory.fulfill(1).map((r) -> r).thenSync());
+    }
+
+    @Test
+    public void testFulfill() {
+        this.forEachFactory((factory) -> {
+            IntPromise i = factory.fulfillInt(5);
+            LongPromise l = factory.fulfillLong(Long.MAX_VALUE);
+            DoublePromise d = factory.fulfillDouble(0.5);
+
+            assertEquals(PromiseState.FULFILLED, i.getState());
+            assertEquals(5, i.thenSync());
+            assertNull(i.exceptSync());
+            assertEquals(Long.MAX_VALUE, l.thenSync());
+            assertEquals(0.5, d.thenSync(), 0);
+        });
+    }
+
+    @Test
+    public void testReject() {
+        this.forEachFactory((factory) -> {
+            Throwable exception = new Throwable();
+
+            IntPromise i = factory.rejectInt(exception);
+
+            assertEquals(PromiseState.REJECTED, i.getState());
+            assertEquals(0, i.thenSync());
+            assertEquals(exception, i.exceptSync());
+            assertEquals(exception, factory.rejectLong(exception).exceptSync());
+            assertEquals(exception, factory.rejectDouble(exception).exceptSync());
+
+            try {
+                factory.rejectInt(null);
+                fail();
+            } catch (NullPointerException e) {
+                assertNotNull(e);
+            }
+        });
+    }
+
+    @Test
+    public void testThenApply() {
+        this.forEachFactory((factory) -> {
+            DoublePromise result = factory.supplyInt(() -> 20)
+                    .thenApplyAsInt((v) -> v + 1)
+                    .thenApplyAsLong((v) -> v * 2L)
+                    .thenApplyAsDouble((v) -> v / 4.0);
+
+            assertEquals(10.5, result.thenSync(), 0);
+            assertEquals("10.5", result.thenApply(Double::toString).thenSync());
+            assertEquals(Double.valueOf(10.5), result.boxed().thenSync());
+            assertEquals(Integer.valueOf(3), factory.fulfillLong(3L).thenApplyAsInt((v) -> (int) v).boxed().thenSync());
+        });
+    }
+
+    @Test
+    public void testThenApplyRunsOnceWhenRacingResolution() {
+        this.forEachFactory((factory) -> {
+            int size = 1000;
+            AtomicInteger count = new AtomicInteger(0);
+            List<IntPromise> chained = new ArrayList<>();
+
+            for (int x = 0; x < size; x++) {
+                // resolved by another thread, while the callback is being subscribed
+                chained.add(factory.supplyInt(() -> 1).thenApplyAsInt((v) -> count.incrementAndGet()));
+            }
+
+            chained.forEach(IntPromise::thenSync);
+            assertEquals(size, count.get());
+        });
+    }
+
+    @Test
+    public void testRejectionPropagates() {
+        this.forEachFactory((factory) -> {
+            RuntimeException exception = new RuntimeException();
+
+            IntPromise thrown = factory.fulfillInt(1).thenApplyAsInt((v) -> {
+                throw exception;
+            });
+
+            LongPromise chained = thrown.thenApplyAsLong((v) -> {
+                fail();
+                return v;
+            });
+
+            assertEquals(exception, chained.exceptSync());
+            assertEquals(exception, chained.boxed().exceptSync());
+            assertEquals(exception, chained.thenApply((v) -> v).exceptSync());
+        });
+    }
+
+    @Test
+    public void testExcept() {
+        this.forEachFactory((factory) -> {
+            assertEquals(7, factory.rejectInt(new Throwable()).except((e) -> 7).thenSync());
+            assertEquals(3L, factory.fulfillLong(3L).except((e) -> 7L).thenSync());
+            assertEquals(1.0, factory.rejectDouble(new Throwable()).except((e) -> 1.0).thenSync(), 0);
+        });
+    }
+
+    @Test
+    public void testToPrimitivePromise() {
+        this.forEachFactory((factory) -> {
+            PromiseFactory promiseFactory = factory.getPromiseFactory();
+            Throwable exception = new Throwable();
+
+            assertEquals(4, factory.toIntPromise(promiseFactory.fulfill(4)).thenSync());
+            assertEquals(4L, factory.toLongPromise(promiseFactory.fulfill(4.9)).thenSync());
+            assertEquals(4.0, factory.toDoublePromise(promiseFactory.fulfill(4L)).thenSync(), 0);
+            assertEquals(exception, factory.toIntPromise(promiseFactory.reject(exception)).exceptSync());
+            assertTrue(factory.toIntPromise(promiseFactory.fulfill(null)).exceptSync() instanceof NullPointerException);
+        });
+    }
+
+    @Test
+    public void testAll() {
+        this.forEachFactory((factory) -> {
+            List<IntPromise> intList = new ArrayList<>();
+            List<LongPromise> longList = new ArrayList<>();
+            List<DoublePromise> doubleList = new ArrayList<>();
+
+            for (int x = 0; x < 100; x++) {
+                int value = x;
+                intList.add(factory.supplyInt(() -> value));
+                longList.add(factory.fulfillLong(value));
+                doubleList.add(factory.supplyInt(() -> value).thenApplyAsDouble((v) -> v / 2.0));
+            }
+
+            int[] ints = factory.allInt(intList).thenSync();
+            long[] longs = factory.allLong(longList).thenSync();
+            double[] doubles = factory.allDouble(doubleList).thenSync();
+
+            for (int x = 0; x < 100; x++) {
+                assertEquals(x, ints[x]);
+                assertEquals(x, longs[x]);
+                assertEquals(x / 2.0, doubles[x], 0);
+            }
+        });
+    }
+
+    @Test
+    public void testAllRejected() {
+        this.forEachFactory((factory) -> {
+            Throwable exception = new Throwable();
+
+            Promise<int[]> promise = factory.allInt(Arrays.asList(
+                    factory.supplyInt(() -> 1),
+                    factory.rejectInt(exception),
+                    factory.supplyInt(() -> {
+                        throw new RuntimeException();
+                    })
+            ));
+
+            assertEquals(exception, promise.exceptSync());
+        });
+    }
+
+    @Test
+    public void testAllInvalid() {
+        this.forEachFactory((factory) -> {
+            try {
+                factory.allInt(Collections.emptyList());
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertNotNull(e);
+            }
+
+            try {
+                factory.allLong(Arrays.asList(factory.fulfillLong(1), null));
+                fail();
+            } catch (NullPointerException e) {
+                assertNotNull(e);
+            }
+        });
+    }
+
+    @Test
+    public void testCancel() {
+        this.forEachFactory((factory) -> {
+            IntPromise promise = factory.toIntPromise(new BlockingPromise<Integer>(factory.getPromiseFactory()).getPromise());
+            IntPromise chained = promise.thenApplyAsInt((v) -> v);
+
+            assertTrue(promise.cancel());
+            assertFalse(promise.cancel());
+            assertTrue(promise.exceptSync() instanceof CancellationException);
+            assertTrue(chained.exceptSync() instanceof CancellationException);
+            assertFalse(factory.fulfillInt(1).cancel());
+        });
+    }
+}
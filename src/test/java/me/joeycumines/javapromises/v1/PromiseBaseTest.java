@@ -2,10 +2,9 @@ package me.joeycumines.javapromises.v1;
 
 import me.joeycumines.javapromises.core.*;
 import org.junit.Test;
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -277,6 +276,111 @@ public class PromiseBaseTest {
         assertNull(promise.getException());
     }
 
+    @Test
+    public void testResolvePromiseLinks() throws InterruptedException {
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+        PromiseBaseShell<Object> inner = new PromiseBaseShell<>();
+        Object value = new Object();
+        AtomicInteger count = new AtomicInteger(0);
+
+        promise.addListener((r, e) -> {
+            assertEquals(value, r);
+            count.incrementAndGet();
+        });
+
+        Thread waiter = new Thread(promise::sync);
+        waiter.start();
+
+        promise.resolve(inner);
+
+        assertTrue(promise.isLinked());
+        assertFalse(inner.isLinked());
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        // linked, so it can't be resolved any other way
+        try {
+            promise.fulfill(new Object());
+            fail();
+        } catch (MutatedStateException e) {
+            assertNotNull(e);
+        }
+
+        assertFalse(promise.cancel());
+
+        inner.fulfill(value);
+
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(value, promise.getValue());
+        assertEquals(1, count.get());
+
+        // a listener added late runs straight away
+        promise.addListener((r, e) -> count.incrementAndGet());
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testResolvePromiseLinksToRoot() {
+        List<PromiseBaseShell<Object>> promises = new ArrayList<>();
+        Throwable exception = new Throwable();
+        AtomicInteger count = new AtomicInteger(0);
+
+        // each resolved with the next, like a recursive loop would be
+        for (int x = 0; x < 100000; x++) {
+            PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+
+            if (!promises.isEmpty()) {
+                promises.get(promises.size() - 1).resolve(promise);
+            } else {
+                promise.addListener((r, e) -> {
+                    assertEquals(exception, e);
+                    count.incrementAndGet();
+                });
+            }
+
+            promises.add(promise);
+        }
+
+        // resolving the root with a promise that is linked to it is circular, nothing happens
+        promises.get(promises.size() - 1).resolve(promises.get(0));
+        assertFalse(promises.get(promises.size() - 1).isLinked());
+
+        // the others are already linked
+        try {
+            promises.get(0).resolve(promises.get(promises.size() - 1));
+            fail();
+        } catch (MutatedStateException e) {
+            assertNotNull(e);
+        }
+
+        promises.get(promises.size() - 1).reject(exception);
+
+        assertEquals(1, count.get());
+
+        for (PromiseBaseShell<Object> promise : promises) {
+            assertEquals(PromiseState.REJECTED, promise.getState());
+            assertEquals(exception, promise.exceptSync());
+        }
+    }
+
+    @Test
+    public void testResolvePromiseLinkedAlreadyResolved() {
+        PromiseBaseShell<Object> inner = new PromiseBaseShell<>();
+        PromiseBaseShell<Object> middle = new PromiseBaseShell<>();
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+
+        middle.resolve(inner);
+        inner.fulfill(null);
+
+        // the middle is still linked, but resolved
+        promise.resolve(middle);
+
+        assertFalse(promise.isLinked());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertNull(promise.thenSync());
+    }
+
     @Test
     public void testFulfillPromiseResolvesPromise() {
         Throwable e = new Throwable();
@@ -298,6 +402,37 @@ public class PromiseBaseTest {
         assertEquals(e, promise.thenSync().exceptSync());
     }
 
+    @Test
+    public void testResolvePromiseListenable() {
+        // a listenable promise that is not a PromiseBase must be listened to, rather than chained from
+        PromiseFuture<Object> inner = new PromiseFuture<Object>() {
+            @Override
+            public <U> Promise<U> always(BiFunction<? super Object, Throwable, ? extends Promise<? extends U>> callback) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+        promise.resolve(inner);
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        Object value = new Object();
+        inner.fulfill(value);
+
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertSame(value, promise.thenSync());
+
+        PromiseFuture<Object> rejected = new PromiseFuture<>();
+        promise = new PromiseBaseShell<>();
+        promise.resolve(rejected);
+
+        Throwable reason = new Throwable();
+        rejected.reject(reason);
+
+        assertEquals(PromiseState.REJECTED, promise.getState());
+        assertSame(reason, promise.exceptSync());
+    }
+
     @Test
     public void testResolvePromiseNested() {
         Throwable e = new Throwable();
@@ -317,46 +452,33 @@ public class PromiseBaseTest {
 
     @Test
     public void testResolvePromiseFulfillAsync() {
-        PromiseBaseShell<Object> inner = spy(new PromiseBaseShell<Object>());
+        PromiseBaseShell<Object> inner = new PromiseBaseShell<Object>();
 
         Object value = new Object();
 
-        // make inner .always work by calling it's callback after waiting a second, and setting the values correctly
-        // we also need to make it notifyAll, since we will have to wait, otherwise the test will exit
+        // resolve inner after waiting a second, it is a PromiseBase, so promise will be linked to it, rather than
+        // chaining from it with always, we also need to make it notifyAll, since we will have to wait
 
-        doAnswer(new Answer<Object>() {
-            @SuppressWarnings("unchecked")
-            @Override
-            public Object answer(InvocationOnMock invocation) {
-                BiFunction callback = (BiFunction) invocation.getArguments()[0];
-
-                // do the rest of this in a new thread
-                Runnable runnable = () -> {
-                    try {
-                        TimeUnit.SECONDS.sleep(1);
-                        inner.fulfill(value);
-                        callback.apply(value, null);
-                        synchronized (inner) {
-                            inner.notifyAll();
-                        }
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                        fail();
-                    }
-                };
-
-                Thread thread = new Thread(runnable);
-                thread.start();
-
-                return null;
+        Runnable runnable = () -> {
+            try {
+                TimeUnit.SECONDS.sleep(1);
+                inner.fulfill(value);
+                synchronized (inner) {
+                    inner.notifyAll();
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                fail();
             }
-        }).when(inner).always(any());
+        };
 
         PromiseBaseShell<Object> promise = new PromiseBaseShell<Object>();
 
         // trigger the countdown until actually resolving
         promise.resolve(inner);
 
+        new Thread(runnable).start();
+
         // we should still be pending
         assertEquals(PromiseState.PENDING, promise.getState());
 
@@ -376,46 +498,33 @@ public class PromiseBaseTest {
 
     @Test
     public void testResolvePromiseRejectAsync() {
-        PromiseBaseShell<Object> inner = spy(new PromiseBaseShell<Object>());
+        PromiseBaseShell<Object> inner = new PromiseBaseShell<Object>();
 
         Throwable exception = new Throwable();
 
-        // make inner .always work by calling it's callback after waiting a second, and setting the values correctly
-        // we also need to make it notifyAll, since we will have to wait, otherwise the test will exit
-
-        doAnswer(new Answer<Object>() {
-            @SuppressWarnings("unchecked")
-            @Override
-            public Object answer(InvocationOnMock invocation) {
-                BiFunction callback = (BiFunction) invocation.getArguments()[0];
-
-                // do the rest of this in a new thread
-                Runnable runnable = () -> {
-                    try {
-                        TimeUnit.SECONDS.sleep(1);
-                        inner.reject(exception);
-                        callback.apply(null, exception);
-                        synchronized (inner) {
-                            inner.notifyAll();
-                        }
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                        fail();
-                    }
-                };
-
-                Thread thread = new Thread(runnable);
-                thread.start();
+        // resolve inner after waiting a second, it is a PromiseBase, so promise will be linked to it, rather than
+        // chaining from it with always, we also need to make it notifyAll, since we will have to wait
 
-                return null;
+        Runnable runnable = () -> {
+            try {
+                TimeUnit.SECONDS.sleep(1);
+                inner.reject(exception);
+                synchronized (inner) {
+                    inner.notifyAll();
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                fail();
             }
-        }).when(inner).always(any());
+        };
 
         PromiseBaseShell<Object> promise = new PromiseBaseShell<Object>();
 
         // trigger the countdown until actually resolving
         promise.resolve(inner);
 
+        new Thread(runnable).start();
+
         // we should still be pending
         assertEquals(PromiseState.PENDING, promise.getState());
 
@@ -522,6 +631,221 @@ public class PromiseBaseTest {
         assertEquals(1, totalSuccess.get());
     }
 
+    @Test
+    public void testSyncReleasesAllWaiters() throws InterruptedException {
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+        Object value = new Object();
+        Vector<Object> results = new Vector<>();
+        ArrayList<Thread> threads = new ArrayList<>();
+
+        for (int x = 0; x < 10; x++) {
+            Thread thread = new Thread(() -> results.add(promise.thenSync()));
+            thread.start();
+            threads.add(thread);
+        }
+
+        // give them a chance to actually park
+        Thread.sleep(100);
+        assertTrue(results.isEmpty());
+
+        promise.fulfill(value);
+
+        for (Thread thread : threads) {
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+
+        assertEquals(10, results.size());
+        results.forEach((r) -> assertEquals(value, r));
+    }
+
+    @Test
+    public void testSyncRestoresInterrupt() throws InterruptedException {
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+        AtomicInteger interrupted = new AtomicInteger(0);
+
+        Thread thread = new Thread(() -> {
+            promise.sync();
+            if (Thread.currentThread().isInterrupted()) {
+                interrupted.incrementAndGet();
+            }
+        });
+        thread.start();
+
+        Thread.sleep(100);
+        thread.interrupt();
+
+        // still waiting
+        Thread.sleep(100);
+        assertTrue(thread.isAlive());
+
+        promise.reject(new Throwable());
+
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertEquals(1, interrupted.get());
+    }
+
+    @Test
+    public void testAddListener() {
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+        Object value = new Object();
+        Vector<Object> results = new Vector<>();
+
+        promise.addListener((r, e) -> {
+            assertNull(e);
+            results.add(r);
+        });
+        promise.addListener((r, e) -> results.add(r));
+
+        assertTrue(results.isEmpty());
+
+        promise.fulfill(value);
+
+        assertEquals(2, results.size());
+        results.forEach((r) -> assertEquals(value, r));
+
+        // already resolved, run immediately
+        promise.addListener((r, e) -> results.add(r));
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    public void testAddListenerReject() {
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+        Throwable exception = new Throwable();
+        Vector<Throwable> results = new Vector<>();
+
+        promise.addListener((r, e) -> {
+            assertNull(r);
+            results.add(e);
+        });
+
+        promise.reject(exception);
+
+        assertEquals(1, results.size());
+        assertEquals(exception, results.get(0));
+    }
+
+    @Test
+    public void testAddListenerThrowsDoesNotBlockWaiters() throws InterruptedException {
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+        AtomicInteger count = new AtomicInteger(0);
+
+        Thread thread = new Thread(promise::sync);
+        thread.start();
+
+        // give it a chance to actually park
+        Thread.sleep(100);
+
+        promise.addListener((r, e) -> {
+            throw new RuntimeException();
+        });
+        promise.addListener((r, e) -> count.incrementAndGet());
+
+        promise.fulfill(null);
+
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testAddListenerRunsOnce() throws InterruptedException {
+        for (int x = 0; x < 100; x++) {
+            PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+            AtomicInteger count = new AtomicInteger(0);
+            ArrayList<Thread> threads = new ArrayList<>();
+
+            for (int y = 0; y < 4; y++) {
+                Thread thread = new Thread(() -> {
+                    for (int z = 0; z < 100; z++) {
+                        promise.addListener((r, e) -> count.incrementAndGet());
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+
+            promise.fulfill(null);
+
+            for (Thread thread : threads) {
+                thread.join(5000);
+                assertFalse(thread.isAlive());
+            }
+
+            assertEquals(400, count.get());
+        }
+    }
+
+    @Test
+    public void testRemoveListener() {
+        PromiseBaseShell<Object> promise = new PromiseBaseShell<>();
+        AtomicInteger count = new AtomicInteger(0);
+        CompletionListener<Object> removed = (r, e) -> fail();
+        CompletionListener<Object> kept = (r, e) -> count.incrementAndGet();
+
+        promise.addListener(kept);
+        promise.addListener(removed);
+        promise.addListener(kept);
+
+        assertTrue(promise.removeListener(removed));
+        assertFalse(promise.removeListener(removed));
+
+        promise.fulfill(null);
+
+        assertEquals(2, count.get());
+        assertFalse(promise.removeListener(kept));
+    }
+
+    @Test
+    public void testCombinatorsDetachListeners() {
+        PromiseApi api = PromiseRunnableFactory.getInstance();
+        AtomicInteger removed = new AtomicInteger(0);
+        List<PromiseBaseShell<Object>> losers = new ArrayList<>();
+
+        for (int x = 0; x < 3; x++) {
+            losers.add(new PromiseBaseShell<Object>() {
+                @Override
+                public boolean removeListener(CompletionListener<? super Object> listener) {
+                    boolean result = super.removeListener(listener);
+                    if (result) {
+                        removed.incrementAndGet();
+                    }
+                    return result;
+                }
+            });
+        }
+
+        PromiseBaseShell<Object> raceWinner = new PromiseBaseShell<>();
+        Promise<Object> race = api.race(withFirst(raceWinner, losers));
+        raceWinner.fulfill(null);
+        assertEquals(PromiseState.FULFILLED, race.getState());
+        assertEquals(3, removed.get());
+
+        PromiseBaseShell<Object> allLoser = new PromiseBaseShell<>();
+        Promise<List<Object>> all = api.all(withFirst(allLoser, losers));
+        allLoser.reject(new Throwable());
+        assertEquals(PromiseState.REJECTED, all.getState());
+        assertEquals(6, removed.get());
+
+        PromiseBaseShell<Object> anyWinner = new PromiseBaseShell<>();
+        Promise<Object> any = api.any(withFirst(anyWinner, losers));
+        anyWinner.fulfill(null);
+        assertEquals(PromiseState.FULFILLED, any.getState());
+        assertEquals(9, removed.get());
+
+        // none of them were cancelled
+        losers.forEach((loser) -> assertEquals(PromiseState.PENDING, loser.getState()));
+    }
+
+    private static List<Promise<Object>> withFirst(Promise<Object> first, List<? extends Promise<Object>> rest) {
+        List<Promise<Object>> promises = new ArrayList<>();
+        promises.add(first);
+        promises.addAll(rest);
+        return promises;
+    }
+
     /**
      * Implementation of PromiseBase to test underlying functionality, exposes reject, fulfill, resolve.
      */
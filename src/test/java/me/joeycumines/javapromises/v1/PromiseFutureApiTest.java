@@ -0,0 +1,11 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.PromiseApi;
+import me.joeycumines.javapromises.core.PromiseApiTest;
+
+public class PromiseFutureApiTest extends PromiseApiTest {
+    @Override
+    protected PromiseApi getApi() {
+        return PromiseFutureFactory.getInstance();
+    }
+}
@@ -0,0 +1,35 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.PromiseFactory;
+import me.joeycumines.javapromises.core.PromiseFactoryTest;
+import me.joeycumines.javapromises.core.PromiseState;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PromiseFutureFactoryTest extends PromiseFactoryTest {
+    @Override
+    protected PromiseFactory getFactory() {
+        return PromiseFutureFactory.getInstance();
+    }
+
+    @Test
+    public void testFulfillNotShared() {
+        PromiseFactory factory = this.getFactory();
+
+        // futures can be obtruded, so even constants must never be shared
+        assertNotSame(factory.fulfill(null), factory.fulfill(null));
+        assertNotSame(factory.fulfill(true), factory.fulfill(true));
+
+        assertEquals(Boolean.TRUE, factory.fulfill(true).thenSync());
+        assertEquals(PromiseState.FULFILLED, factory.fulfill(null).getState());
+    }
+
+    @Test
+    public void testWrapResolvedIsResolved() {
+        PromiseFactory factory = this.getFactory();
+
+        assertEquals(PromiseState.FULFILLED, factory.wrap(PromiseRunnableFactory.getInstance().fulfill(1)).getState());
+        assertEquals(PromiseState.REJECTED, factory.wrap(PromiseRunnableFactory.getInstance().reject(new RuntimeException())).getState());
+    }
+}
@@ -0,0 +1,82 @@
+package me.joeycumines.javapromises.v1;
+
+import me.joeycumines.javapromises.core.Promise;
+import me.joeycumines.javapromises.core.PromiseFactory;
+import me.joeycumines.javapromises.core.PromiseState;
+import me.joeycumines.javapromises.core.PromiseTest;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PromiseFutureTest extends PromiseTest {
+
+    @Override
+    protected PromiseFactory getFactory() {
+        return PromiseFutureFactory.getInstance();
+    }
+
+    @Test
+    public void testCancel() {
+        PromiseFuture<Integer> promise = new PromiseFuture<>();
+        AtomicInteger count = new AtomicInteger(0);
+
+        Promise<Integer> chained = promise.then((r, fulfill) -> count.incrementAndGet());
+
+        assertTrue(promise.cancel());
+        assertFalse(promise.cancel());
+        assertTrue(promise.isCancelled());
+        assertEquals(PromiseState.REJECTED, promise.getState());
+
+        // the chained promise is rejected without running the callback
+        assertTrue(chained.exceptSync() instanceof CancellationException);
+        assertEquals(0, count.get());
+    }
+
+    @Test
+    public void testCancelResolved() {
+        Promise<Integer> promise = this.getFactory().fulfill(1);
+        assertFalse(promise.cancel());
+        assertFalse(promise.isCancelled());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+    }
+
+    @Test
+    public void testSingleFuture() {
+        PromiseFuture<Integer> promise = new PromiseFuture<>();
+        Promise<Integer> chained = promise.map((r) -> r + 1);
+
+        // the promise is the future, no extra stages are required to interop
+        assertSame(promise, promise.getPromise());
+        assertSame(promise, promise.toCompletableFuture());
+        assertTrue(chained instanceof CompletableFuture);
+
+        promise.complete(1);
+
+        assertEquals(2, (int) chained.thenSync());
+    }
+
+    @Test
+    public void testExceptionUnwrapped() {
+        RuntimeException reason = new RuntimeException();
+        Promise<Integer> chained = PromiseFuture.<Integer>fulfilled(1, null, ExecutionPolicy.ASYNC).map((r) -> {
+            throw reason;
+        });
+
+        assertSame(reason, chained.exceptSync());
+    }
+
+    @Test
+    public void testCompletionStageIdentity() {
+        PromiseFuture<Integer> promise = new PromiseFuture<>();
+
+        // conversion in either direction is a cast, for any factory
+        assertSame(promise, PromiseFutureFactory.getInstance().toCompletableFuture(promise));
+        assertSame(promise, PromiseFutureFactory.getInstance().fromCompletionStage(promise));
+        assertSame(promise, PromiseRunnableFactory.getInstance().toCompletableFuture(promise));
+        assertSame(promise, PromiseRunnableFactory.getInstance().fromCompletionStage(promise));
+    }
+}
@@ -1,13 +1,38 @@
 package me.joeycumines.javapromises.v1;
 
+import me.joeycumines.javapromises.core.MutatedStateException;
 import me.joeycumines.javapromises.core.PromiseFactory;
-import me.joeycumines.javapromises.core.PromiseFactoryTest;
+import me.joeycumines.javapromises.core.PromiseState;
+import org.junit.Test;
 
 import static org.junit.Assert.*;
 
-public class PromiseRunnableFactoryTest extends PromiseFactoryTest {
+public class PromiseRunnableFactoryTest extends FulfilledPromiseCacheTest {
     @Override
     protected PromiseFactory getFactory() {
         return PromiseRunnableFactory.getInstance();
     }
+
+    @Test
+    public void testFulfillConstantsImmutable() {
+        PromiseRunnable<Object> promise = (PromiseRunnable<Object>) this.getFactory().fulfill(null);
+        assertSame(promise, this.getFactory().fulfill(null));
+
+        try {
+            promise.setAction((p) -> p.fulfill(new Object()));
+            fail();
+        } catch (MutatedStateException e) {
+            assertEquals(PromiseState.FULFILLED, e.getStateOld());
+        }
+
+        try {
+            promise.setRunner(new TrampolineRunner());
+            fail();
+        } catch (MutatedStateException e) {
+            assertEquals(PromiseState.FULFILLED, e.getStateOld());
+        }
+
+        assertNull(promise.getAction());
+        assertNull(this.getFactory().fulfill(null).thenSync());
+    }
 }
@@ -1,9 +1,16 @@
 package me.joeycumines.javapromises.v1;
 
+import me.joeycumines.javapromises.core.Promise;
 import me.joeycumines.javapromises.core.PromiseFactory;
+import me.joeycumines.javapromises.core.PromiseState;
 import me.joeycumines.javapromises.core.PromiseTest;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.*;
@@ -162,4 +169,214 @@ public class PromiseRunnableTest extends PromiseTest {
             assertNotNull(e);
         }
     }
+
+    @Test
+    public void testSubscribersRunOnceInOrder() {
+        PromiseRunnable<Integer> promise = new PromiseRunnable<>(new ExecutorRunner(Runnable::run));
+        List<Integer> order = new ArrayList<>();
+
+        for (int x = 0; x < 3; x++) {
+            int index = x;
+            promise.then((r, fulfill) -> order.add(index));
+        }
+
+        assertTrue(order.isEmpty());
+
+        promise.fulfill(1);
+
+        assertEquals(Arrays.asList(0, 1, 2), order);
+
+        // subscribing after the broadcast will run immediately
+        promise.then((r, fulfill) -> order.add(3));
+
+        assertEquals(Arrays.asList(0, 1, 2, 3), order);
+    }
+
+    @Test
+    public void testPolicyInlineWhenResolved() {
+        List<Runnable> tasks = new ArrayList<>();
+        PromiseRunnable<Integer> promise = new PromiseRunnable<>(new ExecutorRunner(tasks::add), null, ExecutionPolicy.INLINE_WHEN_RESOLVED);
+        List<Integer> order = new ArrayList<>();
+
+        // pending, so it will be scheduled on the runner once resolved
+        Promise<Object> scheduled = promise.then((r) -> {
+            order.add(0);
+            return null;
+        });
+
+        promise.fulfill(1);
+
+        assertTrue(order.isEmpty());
+        assertEquals(1, tasks.size());
+
+        // already resolved, so it runs on the calling thread
+        Promise<Object> inline = promise.then((r) -> {
+            order.add(1);
+            return null;
+        });
+
+        assertEquals(Arrays.asList(1), order);
+        assertEquals(PromiseState.FULFILLED, inline.getState());
+        assertEquals(ExecutionPolicy.INLINE_WHEN_RESOLVED, ((PromiseRunnable) inline).getPolicy());
+
+        tasks.get(0).run();
+
+        assertEquals(Arrays.asList(1, 0), order);
+        assertEquals(PromiseState.FULFILLED, scheduled.getState());
+    }
+
+    @Test
+    public void testPolicyInlineOnResolve() {
+        List<Runnable> tasks = new ArrayList<>();
+        PromiseRunnable<Integer> promise = new PromiseRunnable<>(new ExecutorRunner(tasks::add), null, ExecutionPolicy.INLINE_ON_RESOLVE);
+        List<Integer> order = new ArrayList<>();
+
+        Promise<Object> chained = promise.then((r) -> {
+            order.add(r);
+            return null;
+        });
+
+        promise.fulfill(1);
+
+        // run on the resolving thread, the runner is never used
+        assertTrue(tasks.isEmpty());
+        assertEquals(Arrays.asList(1), order);
+        assertEquals(PromiseState.FULFILLED, chained.getState());
+    }
+
+    @Test
+    public void testTrampolineLongChain() {
+        PromiseRunnable<Integer> root = new PromiseRunnable<>(new TrampolineRunner());
+        Promise<Integer> promise = root;
+
+        for (int x = 0; x < 100000; x++) {
+            promise = promise.then((r, fulfill) -> fulfill.accept(r + 1));
+        }
+
+        root.fulfill(0);
+
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(100000, (int) promise.thenSync());
+    }
+
+    @Test
+    public void testPolicyInlineOnResolveLongChain() {
+        List<Runnable> tasks = new ArrayList<>();
+        PromiseRunnable<Integer> root = new PromiseRunnable<>(new ExecutorRunner(tasks::add), null, ExecutionPolicy.INLINE_ON_RESOLVE);
+        Promise<Integer> promise = root;
+
+        for (int x = 0; x < 100000; x++) {
+            promise = promise.then((r, fulfill) -> fulfill.accept(r + 1));
+        }
+
+        root.fulfill(0);
+
+        assertTrue(tasks.isEmpty());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(100000, (int) promise.thenSync());
+    }
+
+    @Test
+    public void testRecursiveLoop() {
+        List<Runnable> tasks = new ArrayList<>();
+        Promise<Integer> promise = this.countDown(tasks, 100000);
+        Promise<Integer> chained = promise.then((r) -> PromiseRunnableFactory.getInstance().fulfill(r + 1));
+
+        // each step is resolved with the next, which is linked rather than chained
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(0, (int) promise.thenSync());
+        assertEquals(1, (int) chained.thenSync());
+    }
+
+    @Test
+    public void testResolveRootCompletesBeforeListening() {
+        List<Runnable> tasks = new ArrayList<>();
+        ExecutorRunner runner = new ExecutorRunner(tasks::add);
+        PromiseRunnable<Integer> inner = new PromiseRunnable<Integer>(runner).setRun();
+        AtomicBoolean armed = new AtomicBoolean(false);
+
+        PromiseRunnable<Integer> outer = new PromiseRunnable<Integer>(runner) {
+            @Override
+            protected boolean isLinked() {
+                // the root completes after the broadcast in resolve, but before the subscribers listen for it
+                if (armed.compareAndSet(true, false)) {
+                    inner.fulfill(1);
+                }
+
+                return super.isLinked();
+            }
+        }.setRun();
+
+        Promise<Integer> chained = outer.then((r, fulfill) -> fulfill.accept(r));
+
+        armed.set(true);
+        outer.resolve(inner);
+
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+
+        assertEquals(PromiseState.FULFILLED, inner.getState());
+        assertEquals(PromiseState.FULFILLED, outer.getState());
+        assertEquals(PromiseState.FULFILLED, chained.getState());
+        assertEquals(1, (int) chained.thenSync());
+    }
+
+    private Promise<Integer> countDown(List<Runnable> tasks, int count) {
+        PromiseRunnable<Integer> step = new PromiseRunnable<Integer>(new ExecutorRunner(tasks::add)).fulfill(count);
+        return step.then((r) -> 0 == r ? step : this.countDown(tasks, r - 1));
+    }
+
+    @Test
+    public void testCancel() {
+        List<Runnable> tasks = new ArrayList<>();
+        PromiseRunnable<Integer> promise = new PromiseRunnable<>(new ExecutorRunner(tasks::add));
+        List<Integer> order = new ArrayList<>();
+
+        Promise<Integer> cancelled = promise.then((r, fulfill) -> order.add(0));
+        Promise<Integer> chained = cancelled.then((r, fulfill) -> order.add(1));
+        Promise<Integer> sibling = promise.then((r, fulfill) -> order.add(2));
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+
+        // the rejection propagates down the chain, like any other
+        assertTrue(cancelled.isCancelled());
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(PromiseState.REJECTED, chained.getState());
+        assertTrue(chained.exceptSync() instanceof CancellationException);
+
+        promise.fulfill(1);
+
+        // only the sibling was run
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(Arrays.asList(2), order);
+        assertEquals(PromiseState.FULFILLED, sibling.getState());
+        assertFalse(sibling.cancel());
+        assertFalse(sibling.isCancelled());
+    }
+
+    @Test
+    public void testCancelWhileRunning() {
+        List<Runnable> tasks = new ArrayList<>();
+        PromiseRunnable<Integer> promise = new PromiseRunnable<>(new ExecutorRunner(tasks::add));
+        List<Promise<Integer>> chained = new ArrayList<>();
+
+        chained.add(promise.then((r) -> {
+            // cancelled while the callback was running, the exception has nowhere to go
+            chained.get(0).cancel();
+            throw new RuntimeException();
+        }));
+
+        promise.fulfill(1);
+        tasks.get(0).run();
+
+        assertTrue(chained.get(0).isCancelled());
+    }
 }
@@ -1,11 +1,60 @@
 package me.joeycumines.javapromises.v1;
 
+import me.joeycumines.javapromises.core.Deferred;
+import me.joeycumines.javapromises.core.MutatedStateException;
+import me.joeycumines.javapromises.core.Promise;
 import me.joeycumines.javapromises.core.PromiseFactory;
-import me.joeycumines.javapromises.core.PromiseFactoryTest;
+import me.joeycumines.javapromises.core.PromiseState;
+import org.junit.Test;
 
-public class PromiseStageFactoryTest extends PromiseFactoryTest {
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class PromiseStageFactoryTest extends FulfilledPromiseCacheTest {
     @Override
     protected PromiseFactory getFactory() {
         return PromiseStageFactory.getInstance();
     }
+
+    @Test
+    public void testFulfillConstantsStageNotShared() {
+        PromiseStage<Object> promise = (PromiseStage<Object>) this.getFactory().fulfill(null);
+        Object value = new Object();
+
+        promise.getStage().toCompletableFuture().obtrudeValue(value);
+        promise.getStage().toCompletableFuture().obtrudeException(new RuntimeException());
+
+        assertNotSame(promise.getStage(), promise.getStage());
+        assertNull(promise.getStage().toCompletableFuture().join());
+        assertNull(promise.map((r) -> r).thenSync());
+        assertNull(this.getFactory().fulfill(null).map((r) -> r).thenSync());
+    }
+
+    @Test
+    public void testDeferCancelThenResolve() {
+        Deferred<Object> deferred = this.getFactory().defer();
+        Promise<Object> chained = deferred.getPromise().then((r, fulfill) -> fulfill.accept(r));
+
+        assertTrue(deferred.getPromise().cancel());
+        assertFalse(deferred.getPromise().cancel());
+        assertTrue(deferred.getPromise().isCancelled());
+        assertTrue(chained.exceptSync() instanceof CancellationException);
+
+        try {
+            deferred.fulfill(new Object());
+            fail();
+        } catch (MutatedStateException e) {
+            assertEquals(PromiseState.REJECTED, e.getStateOld());
+        }
+
+        try {
+            deferred.reject(new Throwable());
+            fail();
+        } catch (MutatedStateException e) {
+            assertEquals(PromiseState.REJECTED, e.getStateOld());
+        }
+
+        assertTrue(deferred.getPromise().isCancelled());
+    }
 }
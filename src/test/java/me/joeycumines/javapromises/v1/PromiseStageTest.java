@@ -1,7 +1,15 @@
 package me.joeycumines.javapromises.v1;
 
+import me.joeycumines.javapromises.core.Deferred;
+import me.joeycumines.javapromises.core.Promise;
 import me.joeycumines.javapromises.core.PromiseFactory;
+import me.joeycumines.javapromises.core.PromiseState;
 import me.joeycumines.javapromises.core.PromiseTest;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -11,4 +19,66 @@ public class PromiseStageTest extends PromiseTest {
     protected PromiseFactory getFactory() {
         return PromiseStageFactory.getInstance();
     }
+
+    @Test
+    public void testCancel() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        PromiseStage<Integer> promise = new PromiseStage<>(future);
+        AtomicInteger count = new AtomicInteger(0);
+
+        Promise<Integer> chained = promise.then((r, fulfill) -> count.incrementAndGet());
+
+        assertTrue(promise.cancel());
+        assertFalse(promise.cancel());
+        assertTrue(promise.isCancelled());
+
+        // the chained promise is rejected without running the callback
+        assertTrue(chained.exceptSync() instanceof CancellationException);
+
+        // the original stage was not touched, and completing it later is ignored
+        assertFalse(future.isCancelled());
+        future.complete(1);
+
+        assertTrue(promise.isCancelled());
+        assertEquals(0, count.get());
+    }
+
+    @Test
+    public void testCancelResolved() {
+        Promise<Integer> promise = this.getFactory().fulfill(1);
+        assertFalse(promise.cancel());
+        assertFalse(promise.isCancelled());
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+    }
+
+    @Test
+    public void testWrapResolved() {
+        Promise<Integer> promise = PromiseStage.wrap(CompletableFuture.completedFuture(null), null, PromiseRunnableFactory.getInstance().fulfill(1));
+
+        // resolved immediately, and chained promises see the value
+        assertEquals(PromiseState.FULFILLED, promise.getState());
+        assertEquals(2, (int) promise.map((r) -> r + 1).thenSync());
+
+        RuntimeException reason = new RuntimeException();
+        promise = PromiseStage.wrap(CompletableFuture.completedFuture(null), null, PromiseRunnableFactory.getInstance().reject(reason));
+
+        assertEquals(PromiseState.REJECTED, promise.getState());
+        assertSame(reason, promise.map((r) -> r + 1).exceptSync());
+    }
+
+    @Test
+    public void testWrapNonBlocking() {
+        CompletableFuture<Integer> stage = new CompletableFuture<>();
+        Deferred<Integer> deferred = PromiseRunnableFactory.getInstance().defer();
+
+        // neither the stage or the promise are complete, and this would hang if wrap blocked
+        Promise<Integer> promise = PromiseStage.wrap(stage, null, deferred.getPromise());
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        stage.complete(null);
+        assertEquals(PromiseState.PENDING, promise.getState());
+
+        deferred.fulfill(1);
+        assertEquals(1, (int) promise.thenSync());
+    }
 }
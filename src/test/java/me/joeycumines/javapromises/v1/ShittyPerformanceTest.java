@@ -16,6 +16,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -35,6 +36,10 @@ public class ShittyPerformanceTest {
         apiList.add(new AbstractMap.SimpleEntry<>("6_JAVACRUMBS_FORK_JOIN_COMMON", new PromiseJavacrumbsFactory(ForkJoinPool.commonPool())));
         apiList.add(new AbstractMap.SimpleEntry<>("7_MYFUTURE", PromiseMyFutureFactory.getInstance()));
         apiList.add(new AbstractMap.SimpleEntry<>("8_MYFUTURE_FORK_JOIN_COMMON", new PromiseMyFutureFactory(ForkJoinPool.commonPool())));
+        apiList.add(new AbstractMap.SimpleEntry<>("9_RUNNABLE_INLINE_WHEN_RESOLVED", new PromiseRunnableFactory(new ExecutorRunner(ForkJoinPool.commonPool()), ExecutionPolicy.INLINE_WHEN_RESOLVED)));
+        apiList.add(new AbstractMap.SimpleEntry<>("10_RUNNABLE_INLINE_ON_RESOLVE", new PromiseRunnableFactory(new ExecutorRunner(ForkJoinPool.commonPool()), ExecutionPolicy.INLINE_ON_RESOLVE)));
+        apiList.add(new AbstractMap.SimpleEntry<>("11_STAGE_INLINE_WHEN_RESOLVED", new PromiseStageFactory(null, ExecutionPolicy.INLINE_WHEN_RESOLVED)));
+        apiList.add(new AbstractMap.SimpleEntry<>("12_STAGE_INLINE_ON_RESOLVE", new PromiseStageFactory(null, ExecutionPolicy.INLINE_ON_RESOLVE)));
 
         Collections.shuffle(apiList);
 
@@ -44,7 +49,7 @@ public class ShittyPerformanceTest {
 
         Function<Function<PromiseApi, Promise<?>>, Promise<List<Map.Entry<String, Long>>>> runner = (test) -> {
             // call each of the tests at the same time, and add them to an array
-            BlockingPromise<?> blocker = new BlockingPromise<>(coreApi);
+            Deferred<?> blocker = coreApi.defer();
 //            List<Promise<Long>> apiTest = new ArrayList<>();
 //
 //            apiList.forEach((api) -> apiTest.add(blocker.getPromise().then((v) -> {
@@ -288,6 +293,200 @@ public class ShittyPerformanceTest {
         }
     }
 
+    /**
+     * Complete a large all() / any() fan-in from an increasing number of threads, to show how completion counting
+     * scales with contention.
+     */
+    @Test
+    public void testFanInScaling() throws InterruptedException {
+        int size = 100000;
+        PromiseApi api = new PromiseRunnableFactory(new ExecutorRunner(ForkJoinPool.commonPool()), ExecutionPolicy.INLINE_ON_RESOLVE);
+
+        for (int threads = 1; threads <= Math.max(4, Runtime.getRuntime().availableProcessors()); threads *= 2) {
+            for (boolean reject : new boolean[]{false, true}) {
+                List<Deferred<Integer>> deferredList = new ArrayList<>();
+                List<Promise<Integer>> promiseList = new ArrayList<>();
+                for (int x = 0; x < size; x++) {
+                    Deferred<Integer> deferred = api.defer();
+                    deferredList.add(deferred);
+                    promiseList.add(deferred.getPromise());
+                }
+
+                Promise<?> promise = reject ? api.any(promiseList) : api.all(promiseList);
+
+                int count = threads;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Thread> threadList = new ArrayList<>();
+                for (int y = 0; y < count; y++) {
+                    int offset = y;
+                    Thread thread = new Thread(() -> {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        for (int x = offset; x < size; x += count) {
+                            if (reject) {
+                                deferredList.get(x).reject(RUNTIME_EXCEPTION);
+                            } else {
+                                deferredList.get(x).fulfill(x);
+                            }
+                        }
+                    });
+                    thread.start();
+                    threadList.add(thread);
+                }
+
+                long t = System.nanoTime();
+                start.countDown();
+                promise.sync();
+                t = System.nanoTime() - t;
+
+                for (Thread thread : threadList) {
+                    thread.join();
+                }
+
+                assertEquals(reject ? PromiseState.REJECTED : PromiseState.FULFILLED, promise.getState());
+                System.out.println("[fan-in] " + (reject ? "any (all rejected)" : "all") + " of " + size + " completed by " + threads + " threads took (ms): " + (t / 1000000));
+            }
+        }
+    }
+
+    /**
+     * Run loops of 10M iterations with resolved bodies, and 100K with async bodies (which are dominated by the hop to
+     * the executor), sampling the heap as they go, which should stay flat, since the loops do not chain promises
+     * between iterations.
+     */
+    @Test
+    public void testLoopPerformance() {
+        int size = 10000000;
+        Runtime runtime = Runtime.getRuntime();
+
+        List<Map.Entry<String, PromiseApi>> apiList = new ArrayList<>();
+        apiList.add(new AbstractMap.SimpleEntry<>("RUNNABLE_FORK_JOIN_COMMON", new PromiseRunnableFactory(new ExecutorRunner(ForkJoinPool.commonPool()))));
+        apiList.add(new AbstractMap.SimpleEntry<>("STAGE_DEFAULT_EXECUTOR", new PromiseStageFactory()));
+
+        for (Map.Entry<String, PromiseApi> apiPair : apiList) {
+            PromiseApi api = apiPair.getValue();
+
+            // the async body hops to the executor on every iteration
+            for (boolean async : new boolean[]{false, true}) {
+                int count = async ? size / 100 : size;
+                long[] heap = new long[]{0L};
+                System.gc();
+                long before = runtime.totalMemory() - runtime.freeMemory();
+
+                long t = System.currentTimeMillis();
+                Promise<Void> promise = api.repeat(count, (index) -> {
+                    if (0 == index % 100000) {
+                        heap[0] = Math.max(heap[0], runtime.totalMemory() - runtime.freeMemory());
+                    }
+
+                    return async ? api.attempt(() -> null) : api.fulfill(index);
+                });
+                promise.sync();
+                t = System.currentTimeMillis() - t;
+
+                assertEquals(PromiseState.FULFILLED, promise.getState());
+                System.out.println("[" + apiPair.getKey() + "] " + (async ? "async" : "resolved") + " repeat of " + count + " took (ms): " + t + ", peak heap growth (kb): " + (Math.max(0L, heap[0] - before) / 1024));
+            }
+        }
+    }
+
+    private static Integer addContext(Integer context, Integer value) {
+        return context + value;
+    }
+
+    @Test
+    public void testContextAllocation() {
+        int size = 1000000;
+
+        // bytes allocated by this thread, the chains below all run inline, on this thread
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = bean instanceof com.sun.management.ThreadMXBean ?
+                (com.sun.management.ThreadMXBean) bean : null;
+        if (null != allocations && !allocations.isThreadAllocatedMemorySupported()) {
+            allocations = null;
+        }
+        long thread = Thread.currentThread().getId();
+
+        PromiseRunnableFactory factory = new PromiseRunnableFactory(new ExecutorRunner(ForkJoinPool.commonPool()), ExecutionPolicy.INLINE_WHEN_RESOLVED);
+        Promise<Integer> source = factory.fulfill(1);
+
+        // warm up, then measure, each style of continuation, the timings are sensitive to order, compare allocations
+        for (int round = 0; round < 2; round++) {
+            for (boolean context : new boolean[]{false, true}) {
+                long sum = 0L;
+                long bytes = null == allocations ? 0L : allocations.getThreadAllocatedBytes(thread);
+                long t = System.currentTimeMillis();
+
+                for (int x = 0; x < size; x++) {
+                    Integer offset = x & 0xFF;
+                    Promise<Integer> promise = context ?
+                            source.map(offset, ShittyPerformanceTest::addContext) :
+                            source.map((v) -> v + offset);
+                    sum += promise.thenSync();
+                }
+
+                t = System.currentTimeMillis() - t;
+                bytes = null == allocations ? -1L : allocations.getThreadAllocatedBytes(thread) - bytes;
+
+                assertTrue(sum > 0L);
+
+                if (0 != round) {
+                    System.out.println("[RUNNABLE_INLINE_WHEN_RESOLVED] " + (context ? "context" : "lambda") + " map of " + size + " took (ms): " + t + ", allocated per step (bytes): " + (bytes < 0L ? "unsupported" : (bytes / size)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPrimitivePerformance() {
+        int size = 100000;
+
+        List<Map.Entry<String, PromiseApi>> apiList = new ArrayList<>();
+        apiList.add(new AbstractMap.SimpleEntry<>("RUNNABLE_FORK_JOIN_COMMON", new PromiseRunnableFactory(new ExecutorRunner(ForkJoinPool.commonPool()))));
+        apiList.add(new AbstractMap.SimpleEntry<>("STAGE_DEFAULT_EXECUTOR", new PromiseStageFactory()));
+
+        for (Map.Entry<String, PromiseApi> apiPair : apiList) {
+            PromiseApi api = apiPair.getValue();
+            PrimitivePromiseFactory primitives = apiPair.getKey().startsWith("RUNNABLE") ?
+                    ((PromiseRunnableFactory) api).getPrimitiveFactory() :
+                    ((PromiseStageFactory) api).getPrimitiveFactory();
+
+            long t = System.currentTimeMillis();
+            List<Promise<Double>> boxedList = new ArrayList<>();
+            for (int x = 0; x < size; x++) {
+                int value = x;
+                boxedList.add(api.fulfill(value)
+                        .then((Integer v, Consumer<? super Long> fulfill) -> fulfill.accept(v * 3L))
+                        .then((Long v, Consumer<? super Double> fulfill) -> fulfill.accept(v / 2.0)));
+            }
+            double boxedSum = 0;
+            for (Double v : api.all(boxedList).thenSync()) {
+                boxedSum += v;
+            }
+            t = System.currentTimeMillis() - t;
+            System.out.println("[" + apiPair.getKey() + "] boxed chain of " + size + " took (ms): " + t);
+
+            t = System.currentTimeMillis();
+            List<DoublePromise> primitiveList = new ArrayList<>();
+            for (int x = 0; x < size; x++) {
+                primitiveList.add(primitives.fulfillInt(x)
+                        .thenApplyAsLong((v) -> v * 3L)
+                        .thenApplyAsDouble((v) -> v / 2.0));
+            }
+            double primitiveSum = 0;
+            for (double v : primitives.allDouble(primitiveList).thenSync()) {
+                primitiveSum += v;
+            }
+            t = System.currentTimeMillis() - t;
+            System.out.println("[" + apiPair.getKey() + "] primitive chain of " + size + " took (ms): " + t);
+
+            assertEquals(boxedSum, primitiveSum, 0);
+        }
+    }
+
     /**
      * Move the next step(s), return a promise that will race.
      *
@@ -329,7 +528,7 @@ public class ShittyPerformanceTest {
             return api.reject(RUNTIME_EXCEPTION);
         }
 
-        BlockingPromise<String> blocker = new BlockingPromise<>(api);
+        Deferred<String> blocker = api.defer();
 
         List<MazeRunner> runnerList = Arrays.asList(nextRunnerArray);
 
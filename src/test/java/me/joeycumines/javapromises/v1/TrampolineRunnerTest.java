@@ -0,0 +1,93 @@
+package me.joeycumines.javapromises.v1;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TrampolineRunnerTest {
+    @Test
+    public void testMaxDepthInvalid() {
+        try {
+            new TrampolineRunner(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    @Test
+    public void testDefaultMaxDepth() {
+        assertEquals(TrampolineRunner.DEFAULT_MAX_DEPTH, new TrampolineRunner().getMaxDepth());
+        assertEquals(3, new TrampolineRunner(3).getMaxDepth());
+    }
+
+    @Test
+    public void testDeferredPastMaxDepth() {
+        TrampolineRunner runner = new TrampolineRunner(2);
+        List<Integer> order = new ArrayList<>();
+
+        runner.execute(() -> {
+            order.add(1);
+            runner.execute(() -> {
+                order.add(2);
+                // too deep, will be run after the outermost task
+                runner.execute(() -> order.add(4));
+                order.add(3);
+            });
+        });
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), order);
+    }
+
+    @Test
+    public void testDeepRecursion() {
+        TrampolineRunner runner = new TrampolineRunner();
+        int[] count = new int[]{0};
+
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                if (++count[0] < 1000000) {
+                    runner.execute(this);
+                }
+            }
+        };
+
+        runner.execute(task);
+
+        assertEquals(1000000, count[0]);
+    }
+
+    @Test
+    public void testExceptionStillDrains() {
+        TrampolineRunner runner = new TrampolineRunner(1);
+        List<Integer> order = new ArrayList<>();
+        RuntimeException first = new RuntimeException("first");
+        RuntimeException second = new RuntimeException("second");
+
+        try {
+            runner.execute(() -> {
+                runner.execute(() -> {
+                    order.add(1);
+                    throw second;
+                });
+                runner.execute(() -> order.add(2));
+                throw first;
+            });
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals(first, e);
+            assertArrayEquals(new Throwable[]{second}, e.getSuppressed());
+        }
+
+        assertEquals(Arrays.asList(1, 2), order);
+
+        // the runner is still usable afterwards
+        runner.execute(() -> order.add(3));
+        assertEquals(Arrays.asList(1, 2, 3), order);
+    }
+}